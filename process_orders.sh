@@ -55,6 +55,50 @@ generate_uuid() {
     fi
 }
 
+# Must match the worker's ORDER_TASK_LIST_SHARDS and CADENCE_DOMAIN
+ORDER_TASK_LIST_SHARDS=${ORDER_TASK_LIST_SHARDS:-1}
+CADENCE_DOMAIN=${CADENCE_DOMAIN:-samples-domain}
+
+# Same routing as TaskLists.orderTaskList: Java String.hashCode of the restaurant ID, floor-mod the shard count
+order_task_list() {
+    if [ "$ORDER_TASK_LIST_SHARDS" -le 1 ]; then
+        echo "HandleEatsOrderTaskList"
+        return
+    fi
+    local key=$1 hash=0 i char
+    for (( i=0; i<${#key}; i++ )); do
+        printf -v char '%d' "'${key:i:1}"
+        hash=$(( (hash * 31 + char) & 0xFFFFFFFF ))
+    done
+    if [ $hash -ge 2147483648 ]; then
+        hash=$(( hash - 4294967296 ))
+    fi
+    echo "HandleEatsOrderTaskList-$(( ((hash % ORDER_TASK_LIST_SHARDS) + ORDER_TASK_LIST_SHARDS) % ORDER_TASK_LIST_SHARDS ))"
+}
+
+# Polls the workflow's getStatus query every 2s until the status matches $2 (a grep -E pattern) or $3 seconds pass
+wait_for_status() {
+    local workflow_id=$1 pattern=$2 timeout=$3 waited=0 status=""
+    while [ $waited -lt $timeout ]; do
+        status=$(docker run --rm \
+            --network=docker_default \
+            ubercadence/cli:master \
+            --address docker-cadence-1:7933 \
+            --do "$CADENCE_DOMAIN" \
+            workflow query \
+            --workflow_id "$workflow_id" \
+            --query_type getStatus 2>/dev/null | grep -oE 'RECEIVED|AWAITING_DECISION|REJECTED|PREPARING|DELIVERING|HANDED_OFF|DELIVERED|FAILED' | tail -n 1) || true
+        echo "Status of $workflow_id: ${status:-unknown}"
+        if [[ $status =~ ^($pattern)$ ]]; then
+            return 0
+        fi
+        sleep 2
+        waited=$((waited + 2))
+    done
+    echo "Timed out after ${timeout}s waiting for status $pattern"
+    return 0
+}
+
 # Test Docker and Cadence connectivity before processing
 echo "Testing Docker connectivity..."
 docker ps || { echo "Failed to connect to Docker daemon"; exit 1; }
@@ -64,7 +108,7 @@ docker run --rm \
     --network=docker_default \
     ubercadence/cli:master \
     --address docker-cadence-1:7933 \
-    --do samples-domain \
+    --do "$CADENCE_DOMAIN" \
     domain describe || { echo "Failed to connect to Cadence"; exit 1; }
 
 # Process each line in the CSV
@@ -111,9 +155,9 @@ tail -n +2 "$CSV_FILE" | { while IFS=, read -r items status || [ -n "$items" ];
         --network=docker_default \
         ubercadence/cli:master \
         --address docker-cadence-1:7933 \
-        --do samples-domain \
+        --do "$CADENCE_DOMAIN" \
         workflow start \
-        --tasklist HandleEatsOrderTaskList \
+        --tasklist "$(order_task_list "$restaurant_id")" \
         --workflow_type HandleEatsOrderWorkflow::handleOrder \
         --execution_timeout 1200 \
         --input "[\"$user_id\",$order_json,\"$restaurant_id\"]" 2>&1) || { echo "Failed to start workflow"; exit 1; }
@@ -128,9 +172,8 @@ tail -n +2 "$CSV_FILE" | { while IFS=, read -r items status || [ -n "$items" ];
     
     echo "Got workflow ID: $workflow_id"
     
-    # Wait longer for workflow to initialize
-    echo "Waiting for workflow to initialize..."
-    sleep 30  # Increased from 15 to 30 seconds
+    echo "Waiting for workflow to await the restaurant decision..."
+    wait_for_status "$workflow_id" "AWAITING_DECISION" 30
     
     # Convert status to boolean for signal
     signal_value="false"
@@ -150,7 +193,7 @@ tail -n +2 "$CSV_FILE" | { while IFS=, read -r items status || [ -n "$items" ];
             --network=docker_default \
             ubercadence/cli:master \
             --address docker-cadence-1:7933 \
-            --do samples-domain \
+            --do "$CADENCE_DOMAIN" \
             workflow signal \
             --workflow_id "$workflow_id" \
             --name HandleEatsOrderWorkflow::signalRestaurantDecision \
@@ -175,9 +218,8 @@ tail -n +2 "$CSV_FILE" | { while IFS=, read -r items status || [ -n "$items" ];
         exit 1
     fi
     
-    # Wait longer for workflow to complete (3s prep + 4s delivery + buffer)
     echo "Waiting for workflow to complete..."
-    sleep 30  # Increased from 20 to 30 seconds
+    wait_for_status "$workflow_id" "REJECTED|HANDED_OFF|DELIVERED|FAILED" 30
     
     echo "Completed processing order: $order_id"
     echo "----------------------------------------"
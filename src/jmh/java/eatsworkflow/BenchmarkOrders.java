@@ -0,0 +1,32 @@
+package eatsworkflow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Realistic benchmark inputs: baskets mixing seeded menu items with free-text items.
+ */
+final class BenchmarkOrders {
+    private static final String[] MENU = {"pizza", "fries", "soda", "burger", "salad", "extra spicy sauce", "gluten free bun"};
+
+    private BenchmarkOrders() {
+    }
+
+    static List<String> basket(int size) {
+        List<String> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(MENU[i % MENU.length]);
+        }
+        return items;
+    }
+
+    static Order order(int basketSize) {
+        return new Order("7f1c3a52-9d4e-4b8e-a0f2-3c1d5e6f7a8b", basket(basketSize));
+    }
+
+    // The handleOrder(userId, order, restaurantId, timing) argument array as it is stored in history
+    static Object[] handleOrderArgs(int basketSize) {
+        return new Object[]{"0b6e2f4c-1a3d-4e5f-8a7b-9c0d1e2f3a4b", order(basketSize), "5d4c3b2a-1f0e-4d9c-8b7a-6f5e4d3c2b1a",
+            OrderTimingPolicy.defaults()};
+    }
+}
@@ -0,0 +1,86 @@
+package eatsworkflow;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares bytes allocated per {@code fromDataArray} call between {@link JacksonDataConverter} and the
+ * previous tree-then-convert implementation, using a realistic {@code handleOrder} argument array.
+ *
+ * <p>Built into the benchmarks jar ({@code mvn -Pjmh package}); run with
+ * {@code java -cp target/benchmarks.jar eatsworkflow.DataConverterAllocationCheck [items]}.
+ * Relies on the HotSpot per-thread allocation counter.
+ */
+public class DataConverterAllocationCheck {
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 100_000;
+    private static final Type[] HANDLE_ORDER_TYPES = {String.class, Order.class, String.class, OrderTimingPolicy.class};
+
+    public static void main(String[] args) {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+
+        JacksonDataConverter converter = new JacksonDataConverter();
+        ObjectMapper legacyMapper = new ObjectMapper();
+        List<String> content = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            content.add("menu-item-" + i);
+        }
+        byte[] payload = converter.toData("user-1", new Order("order-1", content), "restaurant-1",
+            OrderTimingPolicy.defaults());
+
+        long current = measure(() -> converter.fromDataArray(payload, HANDLE_ORDER_TYPES));
+        long legacy = measure(() -> legacyFromDataArray(legacyMapper, payload, HANDLE_ORDER_TYPES));
+
+        System.out.printf("handleOrder args, %d items, %d byte payload%n", items, payload.length);
+        System.out.printf("  legacy : %,d bytes/op%n", legacy);
+        System.out.printf("  current: %,d bytes/op%n", current);
+    }
+
+    private static long measure(Runnable decode) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            decode.run();
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            decode.run();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / MEASURED_ITERATIONS;
+    }
+
+    // The implementation JacksonDataConverter.fromDataArray replaced, kept verbatim as the comparison baseline
+    static Object[] legacyFromDataArray(ObjectMapper objectMapper, byte[] content, Type... valueTypes) {
+        try {
+            if (content == null || content.length == 0) {
+                return new Object[0];
+            }
+            String contentStr = new String(content);
+            if (contentStr.trim().startsWith("[") && contentStr.trim().endsWith("]")) {
+                Object[] result = objectMapper.readValue(content, Object[].class);
+                if (valueTypes != null && valueTypes.length > 0) {
+                    Object[] typedResult = new Object[valueTypes.length];
+                    for (int i = 0; i < Math.min(valueTypes.length, result.length); i++) {
+                        if (result[i] != null) {
+                            typedResult[i] = objectMapper.convertValue(result[i], objectMapper.constructType(valueTypes[i]));
+                        }
+                    }
+                    return typedResult;
+                }
+                return result;
+            } else {
+                Object singleValue = objectMapper.readValue(content, Object.class);
+                if (valueTypes != null && valueTypes.length > 0) {
+                    Object typedValue = objectMapper.convertValue(singleValue, objectMapper.constructType(valueTypes[0]));
+                    return new Object[]{typedValue};
+                }
+                return new Object[]{singleValue};
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to deserialize data array", e);
+        }
+    }
+}
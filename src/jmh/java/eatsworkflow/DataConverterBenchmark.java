@@ -0,0 +1,63 @@
+package eatsworkflow;
+
+import com.uber.cadence.converter.DataConverter;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Converter cost of the payloads every handleOrder decision task decodes, per encoding and basket size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class DataConverterBenchmark {
+    private static final Type[] HANDLE_ORDER_TYPES = {String.class, Order.class, String.class, OrderTimingPolicy.class};
+
+    @Param({"1", "5", "25", "100"})
+    public int basketSize;
+
+    @Param({"json", "compact"})
+    public String format;
+
+    private DataConverter converter;
+    private Object[] args;
+    private byte[] argsPayload;
+    private byte[] orderPayload;
+
+    @Setup
+    public void setUp() {
+        converter = "compact".equals(format) ? new CompactDataConverter(true, 1024) : new JacksonDataConverter();
+        args = BenchmarkOrders.handleOrderArgs(basketSize);
+        argsPayload = converter.toData(args);
+        orderPayload = converter.toData(args[1]);
+    }
+
+    @Benchmark
+    public byte[] toData() {
+        return converter.toData(args);
+    }
+
+    @Benchmark
+    public Order fromData() {
+        return converter.fromData(orderPayload, Order.class, Order.class);
+    }
+
+    @Benchmark
+    public Object[] fromDataArray() {
+        return converter.fromDataArray(argsPayload, HANDLE_ORDER_TYPES);
+    }
+}
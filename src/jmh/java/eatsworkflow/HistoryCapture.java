@@ -0,0 +1,133 @@
+package eatsworkflow;
+
+import com.uber.cadence.GetWorkflowExecutionHistoryRequest;
+import com.uber.cadence.GetWorkflowExecutionHistoryResponse;
+import com.uber.cadence.HistoryEvent;
+import com.uber.cadence.ListClosedWorkflowExecutionsRequest;
+import com.uber.cadence.ListClosedWorkflowExecutionsResponse;
+import com.uber.cadence.StartTimeFilter;
+import com.uber.cadence.WorkflowExecution;
+import com.uber.cadence.WorkflowExecutionInfo;
+import com.uber.cadence.common.WorkflowExecutionHistory;
+import com.uber.cadence.serviceclient.IWorkflowService;
+import org.apache.thrift.TException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves workflow histories from the Cadence cluster as JSON files that {@link ReplayBenchmark} replays.
+ *
+ * <p>Run with {@code java -cp target/benchmarks.jar eatsworkflow.HistoryCapture <dir> <workflowId>[:<runId>]...}
+ * to capture specific executions (the latest run when no run ID is given), or with
+ * {@code --closed <count>} in place of the IDs to capture the most recently closed executions of the last day.
+ * Connects like the worker, see {@code CADENCE_CLI_ADDRESS}, {@code CADENCE_HOST} and {@code CADENCE_DOMAIN}.
+ */
+public class HistoryCapture {
+    private static final Logger logger = LoggerFactory.getLogger(HistoryCapture.class);
+    private static final int PAGE_SIZE = 1000;
+
+    private final IWorkflowService service;
+    private final Path directory;
+
+    public HistoryCapture(IWorkflowService service, Path directory) throws IOException {
+        this.service = service;
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * Writes the full history of one execution to {@code <dir>/<workflowId>[_<runId>].json}.
+     *
+     * @param runId null for the latest run
+     * @return the written file
+     */
+    public Path capture(String workflowId, String runId) throws TException, IOException {
+        WorkflowExecution execution = new WorkflowExecution().setWorkflowId(workflowId);
+        if (runId != null) {
+            execution.setRunId(runId);
+        }
+        List<HistoryEvent> events = new ArrayList<>();
+        byte[] pageToken = null;
+        do {
+            GetWorkflowExecutionHistoryResponse response = service.GetWorkflowExecutionHistory(
+                new GetWorkflowExecutionHistoryRequest()
+                    .setDomain(WorkerStarter.DOMAIN)
+                    .setExecution(execution)
+                    .setMaximumPageSize(PAGE_SIZE)
+                    .setNextPageToken(pageToken));
+            events.addAll(response.getHistory().getEvents());
+            pageToken = response.getNextPageToken();
+        } while (pageToken != null && pageToken.length > 0);
+
+        String name = runId == null ? workflowId : workflowId + "_" + runId;
+        Path file = directory.resolve(name.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+        Files.write(file, new WorkflowExecutionHistory(events).toJson().getBytes(StandardCharsets.UTF_8));
+        logger.info("Captured {} events of {} to {}", events.size(), name, file);
+        return file;
+    }
+
+    /**
+     * Captures up to {@code count} executions that closed within the last day, most recent first.
+     */
+    public List<Path> captureClosed(int count) throws TException, IOException {
+        long nowNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+        StartTimeFilter startTime = new StartTimeFilter()
+            .setEarliestTime(nowNanos - TimeUnit.DAYS.toNanos(1))
+            .setLatestTime(nowNanos);
+        List<Path> files = new ArrayList<>();
+        byte[] pageToken = null;
+        do {
+            ListClosedWorkflowExecutionsResponse response = service.ListClosedWorkflowExecutions(
+                new ListClosedWorkflowExecutionsRequest()
+                    .setDomain(WorkerStarter.DOMAIN)
+                    .setStartTimeFilter(startTime)
+                    .setMaximumPageSize(Math.min(count - files.size(), PAGE_SIZE))
+                    .setNextPageToken(pageToken));
+            for (WorkflowExecutionInfo info : response.getExecutions()) {
+                if (files.size() == count) {
+                    break;
+                }
+                files.add(capture(info.getExecution().getWorkflowId(), info.getExecution().getRunId()));
+            }
+            pageToken = response.getNextPageToken();
+        } while (files.size() < count && pageToken != null && pageToken.length > 0);
+        return files;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2 || ("--closed".equals(args[1]) && args.length != 3)) {
+            System.err.println("Usage: HistoryCapture <dir> (<workflowId>[:<runId>]... | --closed <count>)");
+            System.exit(1);
+        }
+        try {
+            IWorkflowService service = WorkerStarter.newWorkflowClient().getService();
+            try {
+                HistoryCapture capture = new HistoryCapture(service, Paths.get(args[0]));
+                if ("--closed".equals(args[1])) {
+                    int captured = capture.captureClosed(Integer.parseInt(args[2])).size();
+                    logger.info("Captured {} closed executions", captured);
+                } else {
+                    for (int i = 1; i < args.length; i++) {
+                        int separator = args[i].indexOf(':');
+                        capture.capture(
+                            separator < 0 ? args[i] : args[i].substring(0, separator),
+                            separator < 0 ? null : args[i].substring(separator + 1));
+                    }
+                }
+            } finally {
+                service.close();
+            }
+            System.exit(0);
+        } catch (Exception e) {
+            logger.error("History capture failed", e);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package eatsworkflow;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Baseline for {@link DataConverterBenchmark#fromDataArray}: the tree-then-convert decoding it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class LegacyDataConverterBenchmark {
+    private static final Type[] HANDLE_ORDER_TYPES = {String.class, Order.class, String.class, OrderTimingPolicy.class};
+
+    @Param({"1", "5", "25", "100"})
+    public int basketSize;
+
+    private ObjectMapper objectMapper;
+    private byte[] argsPayload;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        argsPayload = new JacksonDataConverter().toData(BenchmarkOrders.handleOrderArgs(basketSize));
+    }
+
+    @Benchmark
+    public Object[] fromDataArray() {
+        return DataConverterAllocationCheck.legacyFromDataArray(objectMapper, argsPayload, HANDLE_ORDER_TYPES);
+    }
+}
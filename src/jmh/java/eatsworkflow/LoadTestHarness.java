@@ -0,0 +1,278 @@
+package eatsworkflow;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.uber.cadence.client.WorkflowClient;
+import com.uber.cadence.client.WorkflowClientOptions;
+import com.uber.cadence.client.WorkflowOptions;
+import com.uber.cadence.client.WorkflowStub;
+import com.uber.cadence.testing.TestEnvironmentOptions;
+import com.uber.cadence.testing.TestWorkflowEnvironment;
+import com.uber.cadence.worker.Worker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load test of the order workflows on the in-process Cadence test service.
+ *
+ * <p>Registers {@link HandleEatsOrderWorkflowImpl}, {@link DeliverOrderWorkflowImpl} and {@link EatsActivityImpl}
+ * (with discarded output) on a {@link TestWorkflowEnvironment}, starts synthetic orders at a fixed wall-clock
+ * rate and sends each decision after a delay in workflow time. Time skipping fast-forwards the decision delays
+ * and the built-in sleeps whenever every execution is blocked on a timer, so wall-clock numbers measure worker
+ * overhead and workflow-time numbers the latency an order would see.
+ *
+ * <p>Built into the benchmarks jar ({@code mvn -Pjmh package}); run with
+ * {@code java -cp target/benchmarks.jar eatsworkflow.LoadTestHarness [orders] [ratePerSecond]}.
+ * {@code LOAD_ACCEPT_RATIO} (default 0.9), {@code LOAD_DECISION_DELAY_MILLIS} (default 2000) and
+ * {@code LOAD_DECISION_JITTER_MILLIS} (default 1000) shape the traffic, {@code LOAD_REPORT_FILE} also writes
+ * the report as JSON. Worker settings such as {@code DELIVERY_STRATEGY} apply as on a real worker.
+ */
+public class LoadTestHarness {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestHarness.class);
+    private static final Duration RESULT_TIMEOUT = Duration.ofMinutes(10);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] MENU = {"pizza", "fries", "soda", "burger", "salad", "extra spicy sauce"};
+
+    private final int orders;
+    private final double ratePerSecond;
+    private final double acceptRatio;
+    private final long decisionDelayMillis;
+    private final long decisionJitterMillis;
+    // Fixed seed, so runs generate the same traffic and stay comparable
+    private final Random random = new Random(42);
+
+    public LoadTestHarness(int orders, double ratePerSecond, double acceptRatio,
+                           long decisionDelayMillis, long decisionJitterMillis) {
+        if (orders <= 0 || ratePerSecond <= 0) {
+            throw new IllegalArgumentException("orders and ratePerSecond must be positive");
+        }
+        this.orders = orders;
+        this.ratePerSecond = ratePerSecond;
+        this.acceptRatio = acceptRatio;
+        this.decisionDelayMillis = decisionDelayMillis;
+        this.decisionJitterMillis = decisionJitterMillis;
+    }
+
+    public Report run(WorkflowSettings settings) throws Exception {
+        TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance(
+            new TestEnvironmentOptions.Builder()
+                .setWorkflowClientOptions(WorkflowClientOptions.newBuilder()
+                    .setDomain(WorkerStarter.DOMAIN)
+                    .setDataConverter(WorkerStarter.newDataConverter())
+                    .build())
+                .build());
+        // Signals are sent off the test service's timer thread
+        ExecutorService signaller = Executors.newFixedThreadPool(4);
+        try {
+            EatsActivities activities = new EatsActivityImpl(notification -> { });
+
+            for (String taskList : settings.getTaskLists().orderTaskLists()) {
+                Worker worker = environment.newWorker(taskList);
+                worker.addWorkflowImplementationFactory(
+                    HandleEatsOrderWorkflow.class, () -> new HandleEatsOrderWorkflowImpl(settings));
+                worker.registerActivitiesImplementations(activities);
+            }
+            for (String taskList : settings.getTaskLists().deliveryTaskLists()) {
+                Worker worker = environment.newWorker(taskList);
+                worker.addWorkflowImplementationFactory(
+                    DeliverOrderWorkflow.class, () -> new DeliverOrderWorkflowImpl(settings));
+                worker.registerActivitiesImplementations(activities);
+            }
+            environment.start();
+            WorkflowClient client = environment.newWorkflowClient();
+            return generate(environment, client, signaller, settings.getTaskLists());
+        } finally {
+            signaller.shutdownNow();
+            environment.close();
+        }
+    }
+
+    private Report generate(TestWorkflowEnvironment environment, WorkflowClient client,
+                            ExecutorService signaller, TaskLists taskLists) throws InterruptedException {
+        Report report = new Report(orders);
+        List<CompletableFuture<Void>> results = new ArrayList<>(orders);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long startNanos = System.nanoTime();
+
+        for (int i = 0; i < orders; i++) {
+            // Open-loop schedule: a slow worker does not slow down the offered load
+            long dueNanos = startNanos + i * intervalNanos;
+            long waitNanos = dueNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+
+            OrderRequest request = new OrderRequest(
+                "load-user-" + i,
+                new Order("load-" + i, basket(1 + random.nextInt(5))),
+                "load-restaurant-" + (i % 20),
+                random.nextDouble() < acceptRatio);
+            long decisionDelay = decisionDelayMillis + (decisionJitterMillis > 0 ? (long) (random.nextDouble() * decisionJitterMillis) : 0);
+
+            try {
+                HandleEatsOrderWorkflow workflow = client.newWorkflowStub(
+                    HandleEatsOrderWorkflow.class, OrderClient.newWorkflowOptions(request, taskLists));
+                long submittedNanos = System.nanoTime();
+                long submittedAt = environment.currentTimeMillis();
+                WorkflowClient.start(workflow::handleOrder,
+                    request.getUserId(), request.getOrder(), request.getRestaurantId(), request.getTiming());
+                report.started.incrementAndGet();
+
+                environment.registerDelayedCallback(Duration.ofMillis(decisionDelay), () -> signaller.execute(() -> {
+                    try {
+                        client.newWorkflowStub(HandleEatsOrderWorkflow.class, request.getWorkflowId())
+                            .signalRestaurantDecision(request.isAccepted());
+                    } catch (Exception e) {
+                        logger.warn("Decision for {} failed: {}", request.getWorkflowId(), e.getMessage());
+                    }
+                }));
+
+                WorkflowStub stub = client.newUntypedWorkflowStub(request.getWorkflowId(), Optional.empty(), Optional.empty());
+                results.add(stub.getResultAsync(String.class).handle((result, failure) -> {
+                    report.record(request.isAccepted(), failure == null,
+                        System.nanoTime() - submittedNanos, environment.currentTimeMillis() - submittedAt);
+                    return null;
+                }));
+            } catch (Exception e) {
+                logger.warn("Failed to start {}: {}", request.getWorkflowId(), e.getMessage());
+                report.startFailures.incrementAndGet();
+            }
+        }
+        report.offeredSeconds = (System.nanoTime() - startNanos) / 1e9;
+
+        try {
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                .get(RESULT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            logger.warn("Not all orders finished: {}", e.getMessage());
+        }
+        report.elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        return report;
+    }
+
+    private List<String> basket(int size) {
+        List<String> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(MENU[random.nextInt(MENU.length)]);
+        }
+        return items;
+    }
+
+    /**
+     * Throughput and latency percentiles of one run. Wall-clock latencies are in milliseconds of real time,
+     * workflow latencies in milliseconds of (skipped) workflow time.
+     */
+    public static class Report {
+        private final AtomicLong started = new AtomicLong();
+        private final AtomicLong startFailures = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong accepted = new AtomicLong();
+        private final long[] wallMillis;
+        private final long[] workflowMillis;
+        private int recorded;
+        private volatile double offeredSeconds;
+        private volatile double elapsedSeconds;
+
+        private Report(int orders) {
+            this.wallMillis = new long[orders];
+            this.workflowMillis = new long[orders];
+        }
+
+        private synchronized void record(boolean wasAccepted, boolean succeeded, long wallNanos, long workflowTimeMillis) {
+            if (succeeded) {
+                completed.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+            }
+            if (wasAccepted) {
+                accepted.incrementAndGet();
+            }
+            wallMillis[recorded] = TimeUnit.NANOSECONDS.toMillis(wallNanos);
+            workflowMillis[recorded] = workflowTimeMillis;
+            recorded++;
+        }
+
+        public double getThroughput() {
+            return elapsedSeconds == 0 ? 0 : completed.get() / elapsedSeconds;
+        }
+
+        public synchronized Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("started", started.get());
+            map.put("startFailures", startFailures.get());
+            map.put("completed", completed.get());
+            map.put("failed", failed.get());
+            map.put("accepted", accepted.get());
+            map.put("offeredSeconds", offeredSeconds);
+            map.put("elapsedSeconds", elapsedSeconds);
+            map.put("ordersPerSecond", getThroughput());
+            map.put("wallLatencyMillis", percentiles(wallMillis, recorded));
+            map.put("workflowLatencyMillis", percentiles(workflowMillis, recorded));
+            return map;
+        }
+
+        private static Map<String, Long> percentiles(long[] values, int count) {
+            long[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (double percentile : PERCENTILES) {
+                int index = (int) Math.ceil(percentile / 100 * count) - 1;
+                result.put("p" + String.valueOf(percentile).replace(".0", ""),
+                    count == 0 ? 0 : sorted[Math.max(0, Math.min(count - 1, index))]);
+            }
+            result.put("max", count == 0 ? 0 : sorted[count - 1]);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            Map<String, Object> map = toMap();
+            return String.format("%d started, %d completed, %d failed in %.1fs (%.1f orders/sec)%n"
+                    + "  wall-clock latency ms: %s%n"
+                    + "  workflow latency ms:   %s",
+                started.get(), completed.get(), failed.get() + startFailures.get(), elapsedSeconds, getThroughput(),
+                map.get("wallLatencyMillis"), map.get("workflowLatencyMillis"));
+        }
+    }
+
+    public static void main(String[] args) {
+        try {
+            int orders = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+            double rate = args.length > 1 ? Double.parseDouble(args[1]) : 100;
+            LoadTestHarness harness = new LoadTestHarness(orders, rate,
+                Double.parseDouble(System.getenv().getOrDefault("LOAD_ACCEPT_RATIO", "0.9")),
+                Long.parseLong(System.getenv().getOrDefault("LOAD_DECISION_DELAY_MILLIS", "2000")),
+                Long.parseLong(System.getenv().getOrDefault("LOAD_DECISION_JITTER_MILLIS", "1000")));
+
+            WorkflowSettings settings = WorkflowSettings.fromEnvironment();
+            logger.info("Load test: {} orders at {}/sec with {}", orders, rate, settings);
+            Report report = harness.run(settings);
+            System.out.println(report);
+
+            String reportFile = System.getenv("LOAD_REPORT_FILE");
+            if (reportFile != null && !reportFile.isEmpty()) {
+                new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(reportFile), report.toMap());
+                logger.info("Wrote report to {}", reportFile);
+            }
+            System.exit(report.failed.get() + report.startFailures.get() == 0 ? 0 : 2);
+        } catch (Exception e) {
+            logger.error("Load test failed", e);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package eatsworkflow;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Banner formatting and output in {@link EatsActivityImpl}. Stdout is swapped for a discarding stream so
+ * the numbers reflect formatting and synchronization, not the terminal. {@code sink=async} measures the
+ * publishing side of an {@link AsyncNotificationSink}; run with {@code -t} above 1 to see stdout contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class NotificationFormattingBenchmark {
+    @Param({"stdout", "async"})
+    public String sink;
+
+    private EatsActivityImpl activities;
+    private NotificationSink notificationSink;
+    private final String orderDetails = "Your order received! " + String.join(", ", BenchmarkOrders.basket(5));
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() {
+        originalOut = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+        notificationSink = "async".equals(sink)
+            ? new AsyncNotificationSink(new StdoutNotificationTarget(), 8192, 256, AsyncNotificationSink.OverflowPolicy.BLOCK, null)
+            : NotificationSink.stdout();
+        activities = new EatsActivityImpl(notificationSink);
+    }
+
+    @TearDown
+    public void tearDown() {
+        notificationSink.close();
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public void processOrder() {
+        activities.processOrder(orderDetails);
+    }
+
+    @Benchmark
+    public void notifyOrderDelivered() {
+        activities.notifyOrderDelivered("7f1c3a52-9d4e-4b8e-a0f2-3c1d5e6f7a8b");
+    }
+
+    @Benchmark
+    public void printDeliveryConfirmation() {
+        activities.printDeliveryConfirmation("7f1c3a52-9d4e-4b8e-a0f2-3c1d5e6f7a8b");
+    }
+}
@@ -0,0 +1,58 @@
+package eatsworkflow;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Order construction and plain Jackson round trip, independent of the Cadence converter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class OrderBenchmark {
+    @Param({"1", "5", "25", "100"})
+    public int basketSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<String> basket;
+    private Order order;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        basket = BenchmarkOrders.basket(basketSize);
+        order = BenchmarkOrders.order(basketSize);
+        json = objectMapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public Order construct() {
+        return new Order("7f1c3a52-9d4e-4b8e-a0f2-3c1d5e6f7a8b", basket);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public Order deserialize() throws IOException {
+        return objectMapper.readValue(json, Order.class);
+    }
+}
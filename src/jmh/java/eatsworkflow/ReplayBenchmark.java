@@ -0,0 +1,256 @@
+package eatsworkflow;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.uber.cadence.HistoryEvent;
+import com.uber.cadence.client.WorkflowClientOptions;
+import com.uber.cadence.common.WorkflowExecutionHistory;
+import com.uber.cadence.testing.TestEnvironmentOptions;
+import com.uber.cadence.testing.TestWorkflowEnvironment;
+import com.uber.cadence.worker.Worker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Replays captured histories (see {@link HistoryCapture}) against the current workflow implementations and
+ * reports, per history, the time and bytes allocated per full replay and whether the replay was deterministic.
+ * This is the work a worker does for a decision task that misses the sticky cache.
+ *
+ * <p>Run with {@code java -cp target/benchmarks.jar eatsworkflow.ReplayBenchmark <file or dir>...}.
+ * {@code REPLAY_WARMUP_ITERATIONS} (default 5) and {@code REPLAY_ITERATIONS} (default 20) set the replays per
+ * history, {@code REPLAY_REPORT_FILE} also writes the report as JSON. The worker settings
+ * ({@code DELIVERY_STRATEGY}, {@code ACTIVITY_MODE}, {@code DATA_CONVERTER}, ...) must match the ones the
+ * histories were recorded with, or the replays fail as non-deterministic.
+ *
+ * <p>Replays go through {@link Worker#replayWorkflowExecution}, as {@code WorkflowReplayer} does, but with one
+ * test environment for all histories and the worker's implementation factories. Like {@code WorkflowReplayer},
+ * the environment is never started, so no pollers run. Replays execute on workflow threads rather than the
+ * calling one, so allocations are summed over all live threads; threads that exit during a replay are missed.
+ */
+public class ReplayBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(ReplayBenchmark.class);
+
+    private final WorkflowSettings settings;
+    private final int warmupIterations;
+    private final int iterations;
+
+    public ReplayBenchmark(WorkflowSettings settings, int warmupIterations, int iterations) {
+        if (warmupIterations < 0 || iterations <= 0) {
+            throw new IllegalArgumentException("Invalid iterations: warmup=" + warmupIterations + ", measured=" + iterations);
+        }
+        this.settings = settings;
+        this.warmupIterations = warmupIterations;
+        this.iterations = iterations;
+    }
+
+    public List<Result> run(List<Path> files) throws Exception {
+        Map<Path, WorkflowExecutionHistory> histories = new LinkedHashMap<>();
+        List<Result> results = new ArrayList<>();
+        for (Path file : files) {
+            try {
+                WorkflowExecutionHistory history = WorkflowExecutionHistory.fromJson(
+                    new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+                if (history.getEvents().isEmpty()) {
+                    throw new IllegalArgumentException("no events");
+                }
+                histories.put(file, history);
+            } catch (Exception e) {
+                results.add(Result.failed(file, 0, "Unreadable history: " + e.getMessage()));
+            }
+        }
+
+        TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance(
+            new TestEnvironmentOptions.Builder()
+                .setWorkflowClientOptions(WorkflowClientOptions.newBuilder()
+                    .setDomain(WorkerStarter.DOMAIN)
+                    .setDataConverter(WorkerStarter.newDataConverter())
+                    .build())
+                .build());
+        try {
+            // One worker per task list the histories ran on. Replaying needs no started environment, and
+            // without one no pollers run and allocate while allocations are measured
+            Map<String, Worker> workers = new HashMap<>();
+            for (WorkflowExecutionHistory history : histories.values()) {
+                workers.computeIfAbsent(taskList(history), taskList -> newWorker(environment, taskList));
+            }
+
+            for (Map.Entry<Path, WorkflowExecutionHistory> entry : histories.entrySet()) {
+                WorkflowExecutionHistory history = entry.getValue();
+                results.add(replay(entry.getKey(), history, workers.get(taskList(history))));
+            }
+        } finally {
+            environment.close();
+        }
+        return results;
+    }
+
+    private Worker newWorker(TestWorkflowEnvironment environment, String taskList) {
+        Worker worker = environment.newWorker(taskList);
+        worker.addWorkflowImplementationFactory(
+            HandleEatsOrderWorkflow.class, () -> new HandleEatsOrderWorkflowImpl(settings));
+        worker.addWorkflowImplementationFactory(
+            DeliverOrderWorkflow.class, () -> new DeliverOrderWorkflowImpl(settings));
+        worker.addWorkflowImplementationFactory(
+            RestaurantBatchWorkflow.class, () -> new RestaurantBatchWorkflowImpl(settings));
+        worker.addWorkflowImplementationFactory(
+            RestaurantRouterWorkflow.class, () -> new RestaurantRouterWorkflowImpl());
+        return worker;
+    }
+
+    private Result replay(Path file, WorkflowExecutionHistory history, Worker worker) {
+        int events = history.getEvents().size();
+        try {
+            for (int i = 0; i < warmupIterations; i++) {
+                worker.replayWorkflowExecution(history);
+            }
+            long[] nanos = new long[iterations];
+            long allocatedBefore = allocatedBytes();
+            for (int i = 0; i < iterations; i++) {
+                long startNanos = System.nanoTime();
+                worker.replayWorkflowExecution(history);
+                nanos[i] = System.nanoTime() - startNanos;
+            }
+            long allocated = allocatedBytes() - allocatedBefore;
+            return new Result(file, events, nanos, allocated / iterations, null);
+        } catch (Throwable e) {
+            // Non-determinism surfaces as an exception or error from the replay
+            return Result.failed(file, events, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private static String taskList(WorkflowExecutionHistory history) {
+        HistoryEvent started = history.getEvents().get(0);
+        return started.getWorkflowExecutionStartedEventAttributes().getTaskList().getName();
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Replay cost of one history. Times are in microseconds per full replay.
+     */
+    public static class Result {
+        private final Path file;
+        private final int events;
+        private final long[] sortedNanos;
+        private final long allocatedBytesPerReplay;
+        private final String failure;
+
+        private Result(Path file, int events, long[] nanos, long allocatedBytesPerReplay, String failure) {
+            this.file = file;
+            this.events = events;
+            this.sortedNanos = nanos.clone();
+            Arrays.sort(this.sortedNanos);
+            this.allocatedBytesPerReplay = allocatedBytesPerReplay;
+            this.failure = failure;
+        }
+
+        private static Result failed(Path file, int events, String failure) {
+            return new Result(file, events, new long[0], 0, failure);
+        }
+
+        public boolean isFailed() {
+            return failure != null;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("history", file.toString());
+            map.put("events", events);
+            if (isFailed()) {
+                map.put("failure", failure);
+                return map;
+            }
+            map.put("replays", sortedNanos.length);
+            map.put("meanMicros", TimeUnit.NANOSECONDS.toMicros((long) Arrays.stream(sortedNanos).average().orElse(0)));
+            map.put("p50Micros", TimeUnit.NANOSECONDS.toMicros(sortedNanos[(sortedNanos.length - 1) / 2]));
+            map.put("maxMicros", TimeUnit.NANOSECONDS.toMicros(sortedNanos[sortedNanos.length - 1]));
+            map.put("allocatedBytesPerReplay", allocatedBytesPerReplay);
+            return map;
+        }
+
+        @Override
+        public String toString() {
+            if (isFailed()) {
+                return String.format("%s (%d events): FAILED %s", file.getFileName(), events, failure);
+            }
+            Map<String, Object> map = toMap();
+            return String.format("%s (%d events): mean %d us, p50 %d us, max %d us, %,d bytes/replay",
+                file.getFileName(), events, map.get("meanMicros"), map.get("p50Micros"), map.get("maxMicros"),
+                allocatedBytesPerReplay);
+        }
+    }
+
+    private static List<Path> historyFiles(String[] args) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> children = Files.list(path)) {
+                    files.addAll(children
+                        .filter(child -> child.getFileName().toString().endsWith(".json"))
+                        .sorted()
+                        .collect(Collectors.toList()));
+                }
+            } else {
+                files.add(path);
+            }
+        }
+        return files;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: ReplayBenchmark <history file or dir>...");
+            System.exit(1);
+        }
+        try {
+            List<Path> files = historyFiles(args);
+            WorkflowSettings settings = WorkflowSettings.fromEnvironment();
+            ReplayBenchmark benchmark = new ReplayBenchmark(settings,
+                Integer.parseInt(System.getenv().getOrDefault("REPLAY_WARMUP_ITERATIONS", "5")),
+                Integer.parseInt(System.getenv().getOrDefault("REPLAY_ITERATIONS", "20")));
+            logger.info("Replaying {} histories with {}", files.size(), settings);
+
+            List<Result> results = benchmark.run(files);
+            long failures = results.stream().filter(Result::isFailed).count();
+            results.forEach(System.out::println);
+            System.out.printf("%d histories replayed, %d failed%n", results.size() - failures, failures);
+
+            String reportFile = System.getenv("REPLAY_REPORT_FILE");
+            if (reportFile != null && !reportFile.isEmpty()) {
+                List<Map<String, Object>> report = results.stream().map(Result::toMap).collect(Collectors.toList());
+                new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(reportFile), report);
+                logger.info("Wrote report to {}", reportFile);
+            }
+            System.exit(failures == 0 ? 0 : 2);
+        } catch (Exception e) {
+            logger.error("Replay benchmark failed", e);
+            System.exit(1);
+        }
+    }
+}
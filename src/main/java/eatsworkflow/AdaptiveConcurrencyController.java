@@ -0,0 +1,271 @@
+package eatsworkflow;
+
+import com.uber.cadence.activity.Activity;
+import com.uber.cadence.client.WorkflowClient;
+import com.uber.cadence.worker.Worker;
+import com.uber.cadence.worker.WorkerFactory;
+import com.uber.cadence.worker.WorkerOptions;
+import com.uber.m3.tally.Scope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.management.ObjectName;
+
+/**
+ * Adjusts how many activity tasks a task list's worker runs at once, between configured bounds.
+ *
+ * <p>Cadence fixes execution slots when a worker is built, so the controller owns the task list's activity
+ * polling: it runs an activity-only worker, in a factory of its own, with exactly {@code limit} slots, and
+ * replaces it when the limit changes. A worker at its limit stops polling, so tasks beyond the limit stay on
+ * the server where other hosts can pick them up. The task list's main worker keeps polling decision tasks
+ * and runs local activities; its slots are not adapted. Every {@link #CONTROL_INTERVAL_SECONDS} the limit is
+ * recomputed AIMD-style:
+ * <ul>
+ *   <li>CPU or heap above their ceilings: shrink by a quarter</li>
+ *   <li>tasks waiting on the server longer than the schedule-to-start target while we ran at the limit:
+ *       grow by {@link #INCREASE_STEP}</li>
+ * </ul>
+ */
+public class AdaptiveConcurrencyController implements AdaptiveConcurrencyMXBean {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyController.class);
+    private static final int CONTROL_INTERVAL_SECONDS = 5;
+    // The limit starts from the previous fixed setting
+    private static final int INITIAL_LIMIT = 10;
+    private static final int INCREASE_STEP = 2;
+    private static final double SCHEDULE_TO_START_TARGET_MILLIS = 200;
+    private static final double CPU_CEILING = 0.85;
+    private static final double HEAP_CEILING = 0.85;
+
+    private final String taskList;
+    private final int minLimit;
+    private final int maxLimit;
+    private final com.sun.management.OperatingSystemMXBean os =
+        (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    private final ScheduledExecutorService scheduler;
+    private WorkflowClient workflowClient;
+    private Object[] activities;
+    private Scope metricsScope;
+    // Only touched by start and the scheduler thread
+    private WorkerFactory activityFactory;
+
+    // Guarded by this
+    private int limit;
+    private int inFlight;
+    private int peakInFlight;
+    private long windowTasks;
+    private long windowScheduleToStartMillis;
+    private long windowExecutionMillis;
+
+    private volatile double scheduleToStartMillis;
+    private volatile double executionMillis;
+    private volatile double processCpuLoad;
+    private volatile double heapUsedRatio;
+    private volatile long adjustments;
+
+    public AdaptiveConcurrencyController(String taskList, int minLimit, int maxLimit) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid concurrency bounds: " + minLimit + ".." + maxLimit);
+        }
+        this.taskList = taskList;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, INITIAL_LIMIT));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "adaptive-concurrency-" + taskList);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts polling activity tasks with {@code activities} and adjusting the limit. The task list's main worker
+     * must have its activity worker disabled. Decisions are also exported as gauges tagged with the task list
+     * when {@code metricsScope} is not null.
+     */
+    public void start(WorkflowClient workflowClient, Object[] activities, Scope metricsScope) {
+        this.workflowClient = workflowClient;
+        this.activities = activities.clone();
+        this.metricsScope = metricsScope == null
+            ? null
+            : metricsScope.tagged(Collections.singletonMap("tasklist", taskList));
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                new ObjectName("eatsworkflow:type=AdaptiveConcurrency,taskList=" + ObjectName.quote(taskList)));
+        } catch (Exception e) {
+            logger.warn("Could not register adaptive concurrency MBean for {}: {}", taskList, e.getMessage());
+        }
+        startActivityWorker(getLimit());
+        scheduler.scheduleAtFixedRate(this::adjust, CONTROL_INTERVAL_SECONDS, CONTROL_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        logger.info("Adaptive concurrency for {} started with limit {} (bounds {}..{})", taskList, limit, minLimit, maxLimit);
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+        if (activityFactory != null) {
+            activityFactory.shutdown();
+        }
+    }
+
+    // The previous worker stops polling and finishes the tasks it holds, so a shrink takes effect as they do
+    private void startActivityWorker(int slots) {
+        WorkerFactory factory = WorkerFactory.newInstance(workflowClient);
+        Worker worker = factory.newWorker(taskList, WorkerOptions.newBuilder()
+            .setMaxConcurrentActivityExecutionSize(slots)
+            .setDisableWorkflowWorker(true)
+            .build());
+        worker.registerActivitiesImplementations(activities);
+        if (activityFactory != null) {
+            activityFactory.shutdown();
+        }
+        factory.start();
+        activityFactory = factory;
+    }
+
+    /**
+     * Runs one activity invocation under the controller. Must be called on the activity thread.
+     */
+    public <R> R run(Supplier<R> task) {
+        // Local activities carry no server schedule time and never wait on a task list
+        long scheduledNanos = Activity.getTask().getScheduledTimestamp();
+        long scheduleToStart = scheduledNanos <= 0
+            ? 0
+            : TimeUnit.NANOSECONDS.toMillis(System.currentTimeMillis() * 1_000_000L - scheduledNanos);
+        long start = System.nanoTime();
+        onStart();
+        try {
+            return task.get();
+        } finally {
+            onFinish(Math.max(0, scheduleToStart), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    public void run(Runnable task) {
+        run(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    private synchronized void onStart() {
+        inFlight++;
+        peakInFlight = Math.max(peakInFlight, inFlight);
+    }
+
+    private synchronized void onFinish(long scheduleToStart, long execution) {
+        inFlight--;
+        windowTasks++;
+        windowScheduleToStartMillis += scheduleToStart;
+        windowExecutionMillis += execution;
+    }
+
+    private void adjust() {
+        try {
+            processCpuLoad = os.getProcessCpuLoad();
+            MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+            heapUsedRatio = heap.getMax() > 0 ? (double) heap.getUsed() / heap.getMax() : 0;
+
+            int rebuildWith = 0;
+            synchronized (this) {
+                if (windowTasks > 0) {
+                    scheduleToStartMillis = (double) windowScheduleToStartMillis / windowTasks;
+                    executionMillis = (double) windowExecutionMillis / windowTasks;
+                }
+                boolean saturated = peakInFlight >= limit;
+
+                int newLimit = limit;
+                String reason = null;
+                if (processCpuLoad > CPU_CEILING || heapUsedRatio > HEAP_CEILING) {
+                    newLimit = Math.max(minLimit, limit - Math.max(1, limit / 4));
+                    reason = String.format("cpu %.2f, heap %.2f", processCpuLoad, heapUsedRatio);
+                } else if (saturated && windowTasks > 0 && scheduleToStartMillis > SCHEDULE_TO_START_TARGET_MILLIS) {
+                    newLimit = Math.min(maxLimit, limit + INCREASE_STEP);
+                    reason = String.format("schedule-to-start %.0fms at limit", scheduleToStartMillis);
+                }
+
+                if (newLimit != limit) {
+                    logger.info("Concurrency for {}: {} -> {} ({}; exec {}ms)",
+                        taskList, limit, newLimit, reason, String.format("%.0f", executionMillis));
+                    limit = newLimit;
+                    adjustments++;
+                    rebuildWith = newLimit;
+                }
+
+                if (metricsScope != null) {
+                    metricsScope.gauge("eats-worker-concurrency-limit").update(limit);
+                    metricsScope.gauge("eats-worker-schedule-to-start-ms").update(scheduleToStartMillis);
+                    metricsScope.gauge("eats-worker-execution-ms").update(executionMillis);
+                    metricsScope.gauge("eats-worker-process-cpu-load").update(processCpuLoad);
+                    metricsScope.gauge("eats-worker-heap-used-ratio").update(heapUsedRatio);
+                }
+
+                windowTasks = 0;
+                windowScheduleToStartMillis = 0;
+                windowExecutionMillis = 0;
+                peakInFlight = inFlight;
+            }
+            // Outside the lock: activity threads report to this controller while the old worker drains
+            if (rebuildWith > 0) {
+                startActivityWorker(rebuildWith);
+            }
+        } catch (Exception e) {
+            // Never let the scheduler die; the previous limit stays in force
+            logger.error("Error adjusting concurrency for {}", taskList, e);
+        }
+    }
+
+    @Override
+    public String getTaskList() {
+        return taskList;
+    }
+
+    @Override
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    @Override
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    @Override
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    @Override
+    public double getScheduleToStartMillis() {
+        return scheduleToStartMillis;
+    }
+
+    @Override
+    public double getExecutionMillis() {
+        return executionMillis;
+    }
+
+    @Override
+    public double getProcessCpuLoad() {
+        return processCpuLoad;
+    }
+
+    @Override
+    public double getHeapUsedRatio() {
+        return heapUsedRatio;
+    }
+
+    @Override
+    public long getAdjustments() {
+        return adjustments;
+    }
+}
@@ -0,0 +1,27 @@
+package eatsworkflow;
+
+/**
+ * JMX view of one {@link AdaptiveConcurrencyController}, registered as
+ * {@code eatsworkflow:type=AdaptiveConcurrency,taskList=<name>}.
+ */
+public interface AdaptiveConcurrencyMXBean {
+    String getTaskList();
+
+    int getLimit();
+
+    int getMinLimit();
+
+    int getMaxLimit();
+
+    int getInFlight();
+
+    double getScheduleToStartMillis();
+
+    double getExecutionMillis();
+
+    double getProcessCpuLoad();
+
+    double getHeapUsedRatio();
+
+    long getAdjustments();
+}
@@ -0,0 +1,29 @@
+package eatsworkflow;
+
+/**
+ * Runs every {@link EatsActivities} call under an {@link AdaptiveConcurrencyController}, which times it.
+ */
+public class AdaptiveEatsActivities implements EatsActivities {
+    private final EatsActivities delegate;
+    private final AdaptiveConcurrencyController controller;
+
+    public AdaptiveEatsActivities(EatsActivities delegate, AdaptiveConcurrencyController controller) {
+        this.delegate = delegate;
+        this.controller = controller;
+    }
+
+    @Override
+    public void processOrder(String orderDetails) {
+        controller.run(() -> delegate.processOrder(orderDetails));
+    }
+
+    @Override
+    public void notifyOrderDelivered(String orderId) {
+        controller.run(() -> delegate.notifyOrderDelivered(orderId));
+    }
+
+    @Override
+    public void printDeliveryConfirmation(String orderId) {
+        controller.run(() -> delegate.printDeliveryConfirmation(orderId));
+    }
+}
@@ -0,0 +1,132 @@
+package eatsworkflow;
+
+import com.uber.cadence.activity.Activity;
+import com.uber.cadence.client.ActivityCompletionClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EatsActivities} whose delivery notifications complete asynchronously: the activity method hands
+ * the {@link DeliveryNotifier} call to an executor and returns with {@link Activity#doNotCompleteOnReturn()},
+ * freeing its execution slot, and the result is reported later through the {@link ActivityCompletionClient}.
+ *
+ * <p>The executor uses virtual threads when the JVM has them (looked up reflectively, the build targets
+ * Java 8) and a fixed pool of platform threads otherwise. At most {@code maxInFlight} notifications, and with
+ * platform threads no more than the pool has threads, are outstanding; beyond that the activity thread waits
+ * for one to finish. {@code processOrder} stays
+ * synchronous. Remote activities only: local activities cannot complete asynchronously.
+ */
+public class AsyncCompletionEatsActivities implements EatsActivities, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncCompletionEatsActivities.class);
+
+    private final EatsActivities delegate;
+    private final DeliveryNotifier notifier;
+    private final ActivityCompletionClient completionClient;
+    private final ExecutorService executor;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+
+    public AsyncCompletionEatsActivities(EatsActivities delegate, DeliveryNotifier notifier,
+                                         ActivityCompletionClient completionClient,
+                                         int maxInFlight, int platformThreads) {
+        this.delegate = delegate;
+        this.notifier = notifier;
+        this.completionClient = completionClient;
+        this.executor = newExecutor(platformThreads);
+        // A notification beyond the pool size would only wait in the pool's queue, its activity timing out meanwhile
+        this.maxInFlight = executor instanceof ThreadPoolExecutor ? Math.min(maxInFlight, platformThreads) : maxInFlight;
+        this.inFlight = new Semaphore(this.maxInFlight);
+    }
+
+    static ExecutorService newExecutor(int platformThreads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService executor = (ExecutorService) factory.invoke(null);
+            logger.info("Running delivery notifications on virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            // Older JVM, or virtual threads still in preview
+            logger.info("Virtual threads unavailable, running delivery notifications on {} platform threads", platformThreads);
+            return Executors.newFixedThreadPool(platformThreads, runnable -> {
+                Thread thread = new Thread(runnable, "delivery-notifier");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @Override
+    public void processOrder(String orderDetails) {
+        delegate.processOrder(orderDetails);
+    }
+
+    @Override
+    public void notifyOrderDelivered(String orderId) {
+        completeAsync(orderId, () -> notifier.notifyOrderDelivered(orderId));
+    }
+
+    @Override
+    public void printDeliveryConfirmation(String orderId) {
+        completeAsync(orderId, () -> notifier.printDeliveryConfirmation(orderId));
+    }
+
+    private void completeAsync(String orderId, Notification notification) {
+        byte[] taskToken = Activity.getTaskToken();
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Activity.wrap(e);
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    notification.send();
+                    completionClient.complete(taskToken, null);
+                } catch (Exception e) {
+                    logger.error("Delivery notification for order {} failed: {}", orderId, e.getMessage());
+                    completeExceptionally(taskToken, e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            throw e;
+        }
+        Activity.doNotCompleteOnReturn();
+    }
+
+    private void completeExceptionally(byte[] taskToken, Exception failure) {
+        try {
+            completionClient.completeExceptionally(taskToken, failure);
+        } catch (Exception e) {
+            // The activity has most likely timed out already; the server retries it per its retry options
+            logger.warn("Could not report notification failure: {}", e.getMessage());
+        }
+    }
+
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            logger.warn("{} delivery notifications still running after shutdown timeout", getInFlight());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Notification {
+        void send() throws Exception;
+    }
+}
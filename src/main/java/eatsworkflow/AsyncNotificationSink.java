@@ -0,0 +1,233 @@
+package eatsworkflow;
+
+import com.uber.m3.tally.Scope;
+import com.uber.m3.util.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decouples activity threads from notification output. {@link #publish} only enqueues on a bounded
+ * lock-free queue; a single writer thread drains it in batches of up to {@code batchSize} and hands each
+ * batch to a {@link NotificationTarget}, flushing the target whenever the queue runs empty.
+ *
+ * <p>When the queue is full the {@link OverflowPolicy} decides what happens. Queue depth, flush latency
+ * (enqueue of the oldest notification in a batch until the batch is written) and dropped notifications are
+ * available as getters and, when a metrics scope is given, as {@code eats-notification-*} metrics.
+ */
+public class AsyncNotificationSink implements NotificationSink {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncNotificationSink.class);
+    // Publishers wake an idle writer, so this only bounds how stale the depth gauge and a failed flush get
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+    public enum OverflowPolicy {
+        /** Wait for the writer to make room. No notification is lost, but activities slow down to the writer. */
+        BLOCK,
+        /** Discard the notification being published. */
+        DROP_NEWEST,
+        /** Discard the oldest queued notification to make room. */
+        DROP_OLDEST
+    }
+
+    private final NotificationTarget target;
+    private final int capacity;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final Scope metricsScope;
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    // The queue's size() is O(n), so capacity is tracked separately
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean running = true;
+    // Set while the writer is about to park on an empty queue, so publishers only unpark it then
+    private volatile boolean writerIdle;
+    private volatile long lastFlushLatencyNanos;
+
+    public AsyncNotificationSink(NotificationTarget target, int capacity, int batchSize,
+                                 OverflowPolicy overflowPolicy, Scope metricsScope) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("capacity and batchSize must be positive");
+        }
+        this.target = target;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.metricsScope = metricsScope;
+        this.writer = new Thread(this::drain, "notification-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void publish(String notification) {
+        if (!running) {
+            drop();
+            return;
+        }
+        Entry entry = new Entry(notification, System.nanoTime());
+        while (!tryEnqueue(entry)) {
+            switch (overflowPolicy) {
+                case DROP_NEWEST:
+                    drop();
+                    return;
+                case DROP_OLDEST:
+                    if (queue.poll() != null) {
+                        depth.decrementAndGet();
+                        drop();
+                    }
+                    break;
+                case BLOCK:
+                default:
+                    if (!running) {
+                        drop();
+                        return;
+                    }
+                    LockSupport.parkNanos(FULL_PARK_NANOS);
+                    break;
+            }
+        }
+    }
+
+    private boolean tryEnqueue(Entry entry) {
+        if (depth.incrementAndGet() > capacity) {
+            depth.decrementAndGet();
+            return false;
+        }
+        queue.offer(entry);
+        if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    private void drop() {
+        dropped.incrementAndGet();
+        if (metricsScope != null) {
+            metricsScope.counter("eats-notification-dropped").inc(1);
+        }
+    }
+
+    private void drain() {
+        List<String> batch = new ArrayList<>(batchSize);
+        boolean dirty = false;
+        while (running || depth.get() > 0) {
+            long oldestEnqueuedNanos = 0;
+            Entry entry;
+            while (batch.size() < batchSize && (entry = queue.poll()) != null) {
+                depth.decrementAndGet();
+                if (batch.isEmpty()) {
+                    oldestEnqueuedNanos = entry.enqueuedNanos;
+                }
+                batch.add(entry.notification);
+            }
+
+            if (batch.isEmpty()) {
+                if (dirty) {
+                    dirty = !flushTarget();
+                }
+                reportDepth();
+                // Announce before the last check: a publisher either sees the flag or its entry is seen here
+                writerIdle = true;
+                if (queue.isEmpty() && running) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+                writerIdle = false;
+                continue;
+            }
+
+            try {
+                target.write(batch);
+                dirty = true;
+                written.addAndGet(batch.size());
+            } catch (Exception e) {
+                logger.error("Failed to write {} notifications: {}", batch.size(), e.getMessage());
+                dropped.addAndGet(batch.size());
+                if (metricsScope != null) {
+                    metricsScope.counter("eats-notification-dropped").inc(batch.size());
+                }
+            }
+            long latency = System.nanoTime() - oldestEnqueuedNanos;
+            lastFlushLatencyNanos = latency;
+            if (metricsScope != null) {
+                metricsScope.timer("eats-notification-flush-latency").record(Duration.ofNanos(latency));
+            }
+            batch.clear();
+        }
+        flushTarget();
+    }
+
+    private boolean flushTarget() {
+        try {
+            target.flush();
+            return true;
+        } catch (Exception e) {
+            logger.error("Failed to flush notifications: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void reportDepth() {
+        if (metricsScope != null) {
+            metricsScope.gauge("eats-notification-queue-depth").update(depth.get());
+        }
+    }
+
+    /**
+     * Stops accepting notifications, writes out what is queued and closes the target.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            logger.warn("Notification writer still running after {}ms, {} notifications queued", CLOSE_TIMEOUT_MILLIS, depth.get());
+            return;
+        }
+        try {
+            target.close();
+        } catch (Exception e) {
+            logger.error("Failed to close notification target: {}", e.getMessage());
+        }
+    }
+
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getLastFlushLatencyNanos() {
+        return lastFlushLatencyNanos;
+    }
+
+    private static final class Entry {
+        private final String notification;
+        private final long enqueuedNanos;
+
+        private Entry(String notification, long enqueuedNanos) {
+            this.notification = notification;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package eatsworkflow;
+
+import com.uber.cadence.converter.DataConverter;
+import com.uber.cadence.converter.DataConverterException;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * {@link DataConverter} decorator that moves encoded payloads of at least {@code threshold} bytes into a
+ * {@link PayloadStore} and writes a claim check in their place, keeping large order contents out of history.
+ *
+ * <p>A claim check is {@link #MAGIC}, a version byte, the payload length as a 4 byte big-endian int and the
+ * 32 byte SHA-256 of the payload. Neither JSON nor {@link CompactDataConverter} payloads start with
+ * {@code MAGIC}, so everything else goes straight to the delegate and existing histories keep replaying.
+ * Resolved payloads are checked against their digest before they are decoded.
+ */
+public class ClaimCheckDataConverter implements DataConverter {
+    static final byte MAGIC = (byte) 0xEC;
+    static final byte VERSION = 0x01;
+    private static final int DIGEST_LENGTH = 32;
+    private static final int REFERENCE_LENGTH = 2 + 4 + DIGEST_LENGTH;
+
+    private final DataConverter delegate;
+    private final PayloadStore store;
+    private final int threshold;
+
+    /**
+     * @param threshold encoded size in bytes from which payloads go to the store
+     */
+    public ClaimCheckDataConverter(DataConverter delegate, PayloadStore store, int threshold) {
+        if (threshold <= REFERENCE_LENGTH) {
+            throw new IllegalArgumentException("threshold must exceed the " + REFERENCE_LENGTH + " byte claim check: " + threshold);
+        }
+        this.delegate = delegate;
+        this.store = store;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public byte[] toData(Object... values) throws DataConverterException {
+        byte[] encoded = delegate.toData(values);
+        if (encoded.length < threshold) {
+            return encoded;
+        }
+        byte[] digest = sha256(encoded);
+        try {
+            store.put(hex(digest), encoded);
+        } catch (IOException e) {
+            throw new DataConverterException("Failed to store " + encoded.length + " byte payload", e);
+        }
+        return ByteBuffer.allocate(REFERENCE_LENGTH)
+            .put(MAGIC)
+            .put(VERSION)
+            .putInt(encoded.length)
+            .put(digest)
+            .array();
+    }
+
+    @Override
+    public <T> T fromData(byte[] content, Class<T> valueClass, Type valueType) throws DataConverterException {
+        return delegate.fromData(resolve(content), valueClass, valueType);
+    }
+
+    @Override
+    public Object[] fromDataArray(byte[] content, Type... valueTypes) throws DataConverterException {
+        return delegate.fromDataArray(resolve(content), valueTypes);
+    }
+
+    static boolean isClaimCheck(byte[] content) {
+        return content != null && content.length == REFERENCE_LENGTH && content[0] == MAGIC;
+    }
+
+    private byte[] resolve(byte[] content) {
+        if (!isClaimCheck(content)) {
+            return content;
+        }
+        if (content[1] != VERSION) {
+            throw new DataConverterException("Unsupported claim check version: " + content[1], null);
+        }
+        ByteBuffer reference = ByteBuffer.wrap(content, 2, REFERENCE_LENGTH - 2);
+        int length = reference.getInt();
+        byte[] digest = new byte[DIGEST_LENGTH];
+        reference.get(digest);
+        String key = hex(digest);
+
+        byte[] payload;
+        try {
+            payload = store.get(key);
+        } catch (IOException e) {
+            throw new DataConverterException("Failed to load claim-checked payload " + key, e);
+        }
+        if (payload.length != length || !Arrays.equals(sha256(payload), digest)) {
+            throw new DataConverterException("Claim-checked payload " + key + " does not match its digest", null);
+        }
+        return payload;
+    }
+
+    private static byte[] sha256(byte[] payload) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(payload);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] digest) {
+        char[] chars = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            chars[2 * i] = Character.forDigit((digest[i] >> 4) & 0xF, 16);
+            chars[2 * i + 1] = Character.forDigit(digest[i] & 0xF, 16);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,146 @@
+package eatsworkflow;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.ContextAttributes;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.uber.cadence.converter.DataConverter;
+import com.uber.cadence.converter.DataConverterException;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary {@link DataConverter} that writes Smile-encoded payloads and deflates them above a size threshold.
+ *
+ * <p>Every compact payload starts with a two byte header: {@link #MAGIC} followed by a flags byte. Plain
+ * JSON can never start with {@code MAGIC}, so anything without the header is handed to a
+ * {@link JacksonDataConverter} and existing JSON histories keep replaying. Compressed payloads carry the
+ * uncompressed length as a 4 byte big-endian int after the header.
+ *
+ * <p>For rollouts, construct with {@code writeCompact = false} first: the converter then writes JSON but
+ * already reads both formats, so every worker understands compact payloads before any are produced.
+ */
+public class CompactDataConverter implements DataConverter {
+    static final byte MAGIC = (byte) 0xEA;
+    static final byte FLAG_SMILE = 0x01;
+    static final byte FLAG_DEFLATE = 0x02;
+    private static final int HEADER_LENGTH = 2;
+    private static final int LENGTH_PREFIX = 4;
+
+    private final JacksonDataConverter json;
+    private final JacksonDataConverter smile;
+    private final boolean writeCompact;
+    private final int compressionThreshold;
+
+    /**
+     * @param writeCompact         write Smile payloads; when false only reading is upgraded
+     * @param compressionThreshold encoded size in bytes from which payloads are deflated, negative to disable
+     */
+    public CompactDataConverter(boolean writeCompact, int compressionThreshold) {
+        this.json = new JacksonDataConverter();
+        // Compact payloads are only read by upgraded workers, so seeded menu items can travel as codes
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        smileMapper.setDefaultAttributes(ContextAttributes.getEmpty()
+            .withSharedAttribute(ItemDictionary.CODES_ATTRIBUTE, Boolean.TRUE));
+        this.smile = new JacksonDataConverter(smileMapper);
+        this.writeCompact = writeCompact;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] toData(Object... values) throws DataConverterException {
+        if (!writeCompact) {
+            return json.toData(values);
+        }
+        byte[] encoded = smile.toData(values);
+        if (encoded.length == 0) {
+            return encoded;
+        }
+        if (compressionThreshold >= 0 && encoded.length >= compressionThreshold) {
+            return deflate(encoded);
+        }
+        byte[] result = new byte[HEADER_LENGTH + encoded.length];
+        result[0] = MAGIC;
+        result[1] = FLAG_SMILE;
+        System.arraycopy(encoded, 0, result, HEADER_LENGTH, encoded.length);
+        return result;
+    }
+
+    @Override
+    public <T> T fromData(byte[] content, Class<T> valueClass, Type valueType) throws DataConverterException {
+        if (!isCompact(content)) {
+            return json.fromData(content, valueClass, valueType);
+        }
+        return smile.fromData(body(content), valueClass, valueType);
+    }
+
+    @Override
+    public Object[] fromDataArray(byte[] content, Type... valueTypes) throws DataConverterException {
+        if (!isCompact(content)) {
+            return json.fromDataArray(content, valueTypes);
+        }
+        return smile.fromDataArray(body(content), valueTypes);
+    }
+
+    static boolean isCompact(byte[] content) {
+        return content != null && content.length >= HEADER_LENGTH && content[0] == MAGIC;
+    }
+
+    private static byte[] deflate(byte[] encoded) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(encoded);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length / 2 + HEADER_LENGTH + LENGTH_PREFIX);
+            out.write(MAGIC);
+            out.write(FLAG_SMILE | FLAG_DEFLATE);
+            out.write(ByteBuffer.allocate(LENGTH_PREFIX).putInt(encoded.length).array(), 0, LENGTH_PREFIX);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(buffer);
+                out.write(buffer, 0, written);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] body(byte[] content) {
+        byte flags = content[1];
+        if ((flags & FLAG_SMILE) == 0) {
+            throw new DataConverterException("Unsupported compact payload flags: " + flags, null);
+        }
+        if ((flags & FLAG_DEFLATE) == 0) {
+            byte[] body = new byte[content.length - HEADER_LENGTH];
+            System.arraycopy(content, HEADER_LENGTH, body, 0, body.length);
+            return body;
+        }
+
+        int length = ByteBuffer.wrap(content, HEADER_LENGTH, LENGTH_PREFIX).getInt();
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(content, HEADER_LENGTH + LENGTH_PREFIX, content.length - HEADER_LENGTH - LENGTH_PREFIX);
+            byte[] body = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int inflated = inflater.inflate(body, read, length - read);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += inflated;
+            }
+            if (read != length) {
+                throw new DataConverterException("Truncated compressed payload: expected " + length + " bytes, got " + read, null);
+            }
+            return body;
+        } catch (DataFormatException e) {
+            throw new DataConverterException("Failed to inflate compressed payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
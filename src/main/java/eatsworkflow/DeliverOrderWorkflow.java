@@ -1,5 +1,6 @@
 package eatsworkflow;
 
+import com.uber.cadence.workflow.QueryMethod;
 import com.uber.cadence.workflow.WorkflowMethod;
 import com.uber.cadence.common.MethodRetry;
 
@@ -9,5 +10,8 @@ public interface DeliverOrderWorkflow {
         taskStartToCloseTimeoutSeconds = 60 // 1 minute task timeout
     )
     @MethodRetry(initialIntervalSeconds = 1, maximumIntervalSeconds = 3, maximumAttempts = 2)
-    String deliverOrder(String orderId);
+    String deliverOrder(String orderId, DeliveryRequest request);
+
+    @QueryMethod(name = OrderStatus.QUERY)
+    OrderStatus getStatus();
 }
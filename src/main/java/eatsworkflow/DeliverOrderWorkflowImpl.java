@@ -2,33 +2,62 @@ package eatsworkflow;
 
 import com.uber.cadence.workflow.Workflow;
 import com.uber.cadence.activity.ActivityOptions;
+import com.uber.cadence.activity.LocalActivityOptions;
 import java.time.Duration;
 import org.slf4j.Logger;
 
 public class DeliverOrderWorkflowImpl implements DeliverOrderWorkflow {
     private static final Logger logger = Workflow.getLogger(DeliverOrderWorkflowImpl.class);
 
-    private final EatsActivities activities = Workflow.newActivityStub(
-        EatsActivities.class,
-        new ActivityOptions.Builder()
-            .setScheduleToCloseTimeout(Duration.ofMinutes(2))
-            .setStartToCloseTimeout(Duration.ofSeconds(30))
-            .setScheduleToStartTimeout(Duration.ofSeconds(10))
-            .setRetryOptions(new com.uber.cadence.common.RetryOptions.Builder()
-                .setInitialInterval(Duration.ofSeconds(1))
-                .setMaximumInterval(Duration.ofSeconds(3))
-                .setMaximumAttempts(2)
-                .build())
-            .build());
+    private static final com.uber.cadence.common.RetryOptions ACTIVITY_RETRY = new com.uber.cadence.common.RetryOptions.Builder()
+        .setInitialInterval(Duration.ofSeconds(1))
+        .setMaximumInterval(Duration.ofSeconds(3))
+        .setMaximumAttempts(2)
+        .build();
+
+    private final EatsActivities activities;
+    private OrderStatus status = OrderStatus.DELIVERING;
+
+    public DeliverOrderWorkflowImpl() {
+        this(WorkflowSettings.defaults());
+    }
+
+    public DeliverOrderWorkflowImpl(WorkflowSettings settings) {
+        if (settings.getActivityMode() == WorkflowSettings.ActivityMode.LOCAL) {
+            // Same overall deadline and retry policy, without the task list round trip
+            this.activities = Workflow.newLocalActivityStub(
+                EatsActivities.class,
+                new LocalActivityOptions.Builder()
+                    .setScheduleToCloseTimeout(Duration.ofMinutes(2))
+                    .setRetryOptions(ACTIVITY_RETRY)
+                    .build());
+        } else {
+            this.activities = Workflow.newActivityStub(
+                EatsActivities.class,
+                new ActivityOptions.Builder()
+                    .setScheduleToCloseTimeout(Duration.ofMinutes(2))
+                    .setStartToCloseTimeout(Duration.ofSeconds(30))
+                    .setScheduleToStartTimeout(Duration.ofSeconds(10))
+                    .setRetryOptions(ACTIVITY_RETRY)
+                    .build());
+        }
+    }
 
     @Override
-    public String deliverOrder(String orderId) {
+    public String deliverOrder(String orderId, DeliveryRequest request) {
+        long startedAt = Workflow.currentTimeMillis();
+        boolean detached = request != null && request.isDetached();
+        long deliveryDelayMillis = request != null && request.getDeliveryDelayMillis() != null
+            ? request.getDeliveryDelayMillis()
+            : OrderTimingPolicy.DEFAULT_DELIVERY_DELAY_MILLIS;
         try {
             logger.info("Starting delivery for order: {}", orderId);
             
-            // Sleep for 4 seconds to simulate delivery time
-            logger.info("Simulating delivery time for order: {}", orderId);
-            Workflow.sleep(Duration.ofSeconds(4));
+            // Sleep to simulate delivery time, 4 seconds unless the order's timing policy says otherwise
+            if (deliveryDelayMillis > 0) {
+                logger.info("Simulating delivery time for order: {}", orderId);
+                Workflow.sleep(Duration.ofMillis(deliveryDelayMillis));
+            }
             
             // Print delivery confirmation
             logger.info("Delivery completed for order: {}", orderId);
@@ -36,10 +65,35 @@ public class DeliverOrderWorkflowImpl implements DeliverOrderWorkflow {
             activities.printDeliveryConfirmation(orderId);
             
             logger.info("Order {} delivered!", orderId);
-            return "Order " + orderId + " delivered!";
+            OrderMetrics.recordSince(OrderMetrics.DELIVERY_EXECUTION, startedAt);
+            if (detached) {
+                // Nobody awaits this child, so record what the order workflow records for awaited deliveries
+                OrderMetrics.recordSince(OrderMetrics.DELIVERY_DURATION, startedAt);
+                if (request.getOrderReceivedAt() != null) {
+                    OrderMetrics.recordSince(OrderMetrics.END_TO_END_LATENCY, request.getOrderReceivedAt());
+                }
+                OrderMetrics.increment(OrderMetrics.DELIVERED);
+            }
+            String result = "Order " + orderId + " delivered!";
+            status = OrderStatus.DELIVERED;
+            return result;
         } catch (Exception e) {
             logger.error("Error in delivery workflow for order {}: {}", orderId, e.getMessage());
-            throw e;
+            OrderMetrics.increment(OrderMetrics.DELIVERY_ATTEMPT_FAILED);
+            status = OrderStatus.FAILED;
+            if (!detached) {
+                throw e;
+            }
+            // Detached: nobody awaits this child, so send the failure notice the order workflow would have sent
+            OrderMetrics.increment(OrderMetrics.DELIVERY_FAILED);
+            activities.processOrder(String.format("Order %s delivery failed: %s\nItems: %s",
+                orderId, e.getMessage(), request.getContent()));
+            return "Order " + orderId + " delivery failed: " + e.getMessage();
         }
     }
+
+    @Override
+    public OrderStatus getStatus() {
+        return status;
+    }
 }
@@ -0,0 +1,11 @@
+package eatsworkflow;
+
+/**
+ * External system behind the delivery notification activities. Calls block until the notification has
+ * been accepted and may be slow, so {@link AsyncCompletionEatsActivities} runs them off the activity threads.
+ */
+public interface DeliveryNotifier {
+    void notifyOrderDelivered(String orderId) throws Exception;
+
+    void printDeliveryConfirmation(String orderId) throws Exception;
+}
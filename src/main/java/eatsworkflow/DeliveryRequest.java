@@ -0,0 +1,66 @@
+package eatsworkflow;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+/**
+ * Optional second argument of {@link DeliverOrderWorkflow#deliverOrder}. Absent (null) for awaited child
+ * deliveries with the default timing, which is also how executions started before it existed replay.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class DeliveryRequest {
+    private final boolean detached;
+    private final List<String> content;
+    private final Long deliveryDelayMillis;
+    private final Long orderReceivedAt;
+
+    /**
+     * @param detached            nobody awaits the delivery, so it reports its own outcome
+     * @param content             order items, used for the failure notification the parent would otherwise send
+     * @param deliveryDelayMillis simulated delivery time, null for the default
+     * @param orderReceivedAt     workflow time the order was received, set for detached deliveries so the
+     *                            child can record the end-to-end latency
+     */
+    @JsonCreator
+    public DeliveryRequest(
+        @JsonProperty("detached") Boolean detached,
+        @JsonProperty("content") List<String> content,
+        @JsonProperty("deliveryDelayMillis") Long deliveryDelayMillis,
+        @JsonProperty("orderReceivedAt") Long orderReceivedAt
+    ) {
+        this.detached = detached != null && detached;
+        this.content = content;
+        this.deliveryDelayMillis = deliveryDelayMillis;
+        this.orderReceivedAt = orderReceivedAt;
+    }
+
+    @JsonProperty("detached")
+    public boolean isDetached() {
+        return detached;
+    }
+
+    @JsonProperty("content")
+    public List<String> getContent() {
+        return content;
+    }
+
+    @JsonProperty("deliveryDelayMillis")
+    public Long getDeliveryDelayMillis() {
+        return deliveryDelayMillis;
+    }
+
+    @JsonProperty("orderReceivedAt")
+    public Long getOrderReceivedAt() {
+        return orderReceivedAt;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DeliveryRequest{detached=%s, content=%s, deliveryDelayMillis=%s, orderReceivedAt=%s}",
+            detached, content, deliveryDelayMillis, orderReceivedAt);
+    }
+}
@@ -3,14 +3,28 @@ package eatsworkflow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Writes order banners through a {@link NotificationSink}. The sink is the output; the log only repeats the
+ * banners at debug level.
+ */
 public class EatsActivityImpl implements EatsActivities {
     private static final Logger logger = LoggerFactory.getLogger(EatsActivityImpl.class);
 
+    private final NotificationSink sink;
+
+    public EatsActivityImpl() {
+        this(NotificationSink.stdout());
+    }
+
+    public EatsActivityImpl(NotificationSink sink) {
+        this.sink = sink;
+    }
+
     @Override
     public void processOrder(String orderDetails) {
         try {
-            logger.info("Processing order: {}", orderDetails);
-            System.out.println("\nORDER UPDATE:\n" + 
+            logger.debug("Processing order: {}", orderDetails);
+            sink.publish("\nORDER UPDATE:\n" + 
                              "============================\n" + 
                              orderDetails + 
                              "\n============================\n");
@@ -24,8 +38,8 @@ public class EatsActivityImpl implements EatsActivities {
     public void notifyOrderDelivered(String orderId) {
         try {
             String message = "Order " + orderId + " delivered!";
-            logger.info(message);
-            System.out.println("\nDELIVERY NOTIFICATION:\n" +
+            logger.debug(message);
+            sink.publish("\nDELIVERY NOTIFICATION:\n" +
                              "============================\n" +
                              message +
                              "\n============================\n");
@@ -39,8 +53,8 @@ public class EatsActivityImpl implements EatsActivities {
     public void printDeliveryConfirmation(String orderId) {
         try {
             String message = "Your order is in front of your door!";
-            logger.info(message);
-            System.out.println("\nDELIVERY CONFIRMATION:\n" +
+            logger.debug(message);
+            sink.publish("\nDELIVERY CONFIRMATION:\n" +
                              "============================\n" +
                              message +
                              "\n============================\n");
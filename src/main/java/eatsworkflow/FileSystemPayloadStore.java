@@ -0,0 +1,159 @@
+package eatsworkflow;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link PayloadStore} keeping each blob in {@code <root>/<first two key chars>/<key>}. Blobs are written to a
+ * temporary file and moved into place, so readers never see a partial blob. Reads load the whole file, as the
+ * converter needs the bytes on the heap anyway, and go through an LRU cache bounded by {@code cacheBytes},
+ * since replays read the same blobs repeatedly.
+ *
+ * <p>Nothing is deleted on its own: {@link #deleteOlderThan} removes blobs that were last written before a
+ * cutoff, and {@link #scheduleCleanup} runs it periodically. Writing an existing blob again refreshes its
+ * modification time, so the age is measured from the newest history that can reference it.
+ */
+public class FileSystemPayloadStore implements PayloadStore {
+    private static final Logger logger = LoggerFactory.getLogger(FileSystemPayloadStore.class);
+
+    private final Path root;
+    private final long cacheBytes;
+    private final LinkedHashMap<String, byte[]> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    /**
+     * @param cacheBytes total payload bytes kept in memory, 0 disables the cache
+     */
+    public FileSystemPayloadStore(Path root, long cacheBytes) throws IOException {
+        if (cacheBytes < 0) {
+            throw new IllegalArgumentException("cacheBytes must not be negative: " + cacheBytes);
+        }
+        this.root = Files.createDirectories(root);
+        this.cacheBytes = cacheBytes;
+    }
+
+    @Override
+    public void put(String key, byte[] payload) throws IOException {
+        Path file = path(key);
+        if (Files.exists(file)) {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return;
+        }
+        Path dir = Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(dir, key, ".tmp");
+        try {
+            Files.write(temp, payload);
+            // Same key, same content: replacing a blob written concurrently by another process is fine
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        cache(key, payload);
+    }
+
+    @Override
+    public byte[] get(String key) throws IOException {
+        synchronized (cache) {
+            byte[] cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        byte[] payload = Files.readAllBytes(path(key));
+        cache(key, payload);
+        return payload;
+    }
+
+    /**
+     * Deletes blobs, and temporary files left behind by interrupted writes, last modified more than
+     * {@code retention} ago. Histories still referencing a deleted blob can no longer be replayed, so
+     * {@code retention} must cover the domain's history retention plus the longest workflow run.
+     *
+     * @return the number of deleted files
+     */
+    public int deleteOlderThan(Duration retention) throws IOException {
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        int deleted = 0;
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                    for (Path file : files) {
+                        if (Files.getLastModifiedTime(file).toMillis() < cutoff && Files.deleteIfExists(file)) {
+                            uncache(file.getFileName().toString());
+                            deleted++;
+                        }
+                    }
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Runs {@link #deleteOlderThan} every {@code interval} on a daemon thread, starting one interval from now.
+     * Every process sharing the directory may run it; concurrent deletes of the same blob are harmless.
+     */
+    public ScheduledExecutorService scheduleCleanup(Duration retention, Duration interval) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "payload-store-cleanup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                int deleted = deleteOlderThan(retention);
+                logger.info("Deleted {} claim-checked payloads older than {} from {}", deleted, retention, root);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Claim check cleanup in {} failed: {}", root, e.getMessage());
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        return scheduler;
+    }
+
+    private Path path(String key) {
+        if (key.length() < 3 || !key.matches("[0-9a-f]+")) {
+            throw new IllegalArgumentException("Invalid payload key: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private void uncache(String key) {
+        synchronized (cache) {
+            byte[] previous = cache.remove(key);
+            if (previous != null) {
+                cachedBytes -= previous.length;
+            }
+        }
+    }
+
+    private void cache(String key, byte[] payload) {
+        if (payload.length > cacheBytes) {
+            return;
+        }
+        synchronized (cache) {
+            byte[] previous = cache.put(key, payload);
+            if (previous != null) {
+                cachedBytes -= previous.length;
+            }
+            cachedBytes += payload.length;
+            Iterator<Map.Entry<String, byte[]>> eldest = cache.entrySet().iterator();
+            while (cachedBytes > cacheBytes && eldest.hasNext()) {
+                cachedBytes -= eldest.next().getValue().length;
+                eldest.remove();
+            }
+        }
+    }
+}
@@ -1,17 +1,29 @@
 package eatsworkflow;
 
 import com.uber.cadence.workflow.WorkflowMethod;
+import com.uber.cadence.workflow.QueryMethod;
 import com.uber.cadence.workflow.SignalMethod;
 import com.uber.cadence.common.MethodRetry;
 
 public interface HandleEatsOrderWorkflow {
+    // Also used by OrderClient, which sets the timeout explicitly on every start
+    int EXECUTION_TIMEOUT_SECONDS = 600; // 10 minutes
+
     @WorkflowMethod(
-        executionStartToCloseTimeoutSeconds = 600, // 10 minutes timeout
+        executionStartToCloseTimeoutSeconds = EXECUTION_TIMEOUT_SECONDS,
         taskStartToCloseTimeoutSeconds = 60 // 1 minute task timeout
     )
     @MethodRetry(initialIntervalSeconds = 1, maximumIntervalSeconds = 3, maximumAttempts = 2)
-    String handleOrder(String userId, Order order, String restaurantId);
+    // timing may be null, which is also how executions started before it existed replay
+    String handleOrder(String userId, Order order, String restaurantId, OrderTimingPolicy timing);
 
     @SignalMethod
     void signalRestaurantDecision(boolean accepted);
+
+    // Sent by RestaurantRouterWorkflow; ignored unless restaurantId is the one the order was placed with
+    @SignalMethod
+    void signalRoutedDecision(String restaurantId, boolean accepted);
+
+    @QueryMethod(name = OrderStatus.QUERY)
+    OrderStatus getStatus();
 }
@@ -1,75 +1,61 @@
 package eatsworkflow;
 
 import com.uber.cadence.workflow.Workflow;
-import com.uber.cadence.activity.ActivityOptions;
-import com.uber.cadence.workflow.ChildWorkflowOptions;
 import com.uber.cadence.workflow.CompletablePromise;
-import java.time.Duration;
 import org.slf4j.Logger;
-import com.uber.cadence.workflow.Promise;
-import com.uber.cadence.workflow.Async;
 
 public class HandleEatsOrderWorkflowImpl implements HandleEatsOrderWorkflow {
     private static final Logger logger = Workflow.getLogger(HandleEatsOrderWorkflowImpl.class);
 
-    private final EatsActivities activities = Workflow.newActivityStub(
-        EatsActivities.class,
-        new ActivityOptions.Builder()
-            .setScheduleToCloseTimeout(Duration.ofMinutes(1))
-            .setStartToCloseTimeout(Duration.ofSeconds(30))
-            .setScheduleToStartTimeout(Duration.ofSeconds(30))
-            .setRetryOptions(new com.uber.cadence.common.RetryOptions.Builder()
-                .setInitialInterval(Duration.ofSeconds(1))
-                .setMaximumInterval(Duration.ofSeconds(10))
-                .setMaximumAttempts(3)
-                .build())
-            .build());
+    private final OrderFulfillment fulfillment;
 
     private boolean restaurantDecision = false;
     private CompletablePromise<Void> signalPromise = Workflow.newPromise();
     private boolean signalReceived = false;
+    private OrderStatus status = OrderStatus.RECEIVED;
+    private String restaurantId;
+
+    public HandleEatsOrderWorkflowImpl() {
+        this(WorkflowSettings.defaults());
+    }
+
+    public HandleEatsOrderWorkflowImpl(WorkflowSettings settings) {
+        this.fulfillment = new OrderFulfillment(settings);
+    }
 
     @Override
-    public String handleOrder(String userId, Order order, String restaurantId) {
+    public String handleOrder(String userId, Order order, String restaurantId, OrderTimingPolicy timing) {
+        // Workflow time, so replays compute the same latencies
+        long receivedAt = Workflow.currentTimeMillis();
+        // Set before anything blocks, so routed decisions signalled with the start are already checked against it
+        this.restaurantId = restaurantId;
         try {
          
             logger.info("Starting workflow execution for order: {}", order != null ? order.getId() : "null");
-            logger.info("Received parameters - userId: {}, order: {}, restaurantId: {}", 
-                userId, order, restaurantId);
+            logger.info("Received parameters - userId: {}, order: {}, restaurantId: {}, timing: {}", 
+                userId, order, restaurantId, timing);
 
-            // Validate inputs with more detailed error messages
-            if (userId == null || userId.trim().isEmpty()) {
-                logger.error("Invalid userId: {}", userId);
-                throw new IllegalArgumentException("User ID cannot be null or empty");
-            }
-            if (order == null) {
-                logger.error("Order is null");
-                throw new IllegalArgumentException("Order cannot be null");
-            }
-            if (order.getId() == null || order.getId().trim().isEmpty()) {
-                logger.error("Order ID is null or empty");
-                throw new IllegalArgumentException("Order ID cannot be null or empty");
-            }
-            if (order.getContent() == null) {
-                logger.error("Order content is null");
-                throw new IllegalArgumentException("Order content cannot be null");
-            }
-            if (restaurantId == null || restaurantId.trim().isEmpty()) {
-                logger.error("Invalid restaurantId: {}", restaurantId);
-                throw new IllegalArgumentException("Restaurant ID cannot be null or empty");
-            }
+            OrderFulfillment.validate(userId, order, restaurantId);
+            fulfillment.notifyReceived(order);
 
-            // Print order received message with details
-            logger.info("Your order received!");
-            activities.processOrder("Your order received! " + String.join(", ", order.getContent()));
+            OrderTimingPolicy effectiveTiming = OrderTimingPolicy.orDefaults(timing);
+            if (effectiveTiming.isAutoAccept()) {
+                // No signal round trip or decision timer; a decision signal that still arrives is ignored
+                logger.info("Order {} auto-accepted", order.getId());
+                String result = fulfillment.complete(order, true, receivedAt, receivedAt, timing, this::setStatus);
+                logger.info("Main workflow completed for order: {}", order.getId());
+                return result;
+            }
 
             logger.info("Waiting for restaurant decision...");
+            status = OrderStatus.AWAITING_DECISION;
             
             // Wait for restaurant decision with timeout
             try {
-                boolean decisionReceived = Workflow.await(Duration.ofSeconds(60), () -> signalPromise.isCompleted());
+                boolean decisionReceived = Workflow.await(effectiveTiming.getDecisionTimeout(), () -> signalPromise.isCompleted());
                 if (!decisionReceived) {
                     logger.error("Timeout waiting for restaurant decision");
+                    OrderMetrics.increment(OrderMetrics.DECISION_TIMEOUT);
                     throw new RuntimeException("Timeout waiting for restaurant decision");
                 }
                 if (!signalReceived) {
@@ -81,56 +67,39 @@ public class HandleEatsOrderWorkflowImpl implements HandleEatsOrderWorkflow {
                 logger.error("Error waiting for restaurant decision", e);
                 throw e;
             }
-            
-            if (!restaurantDecision) {
-                logger.info("Order {} was rejected by the restaurant", order.getId());
-                activities.processOrder(String.format("Order %s was rejected by the restaurant\nItems: %s", 
-                    order.getId(), order.getContent()));
-                return "Order " + order.getId() + " was rejected by the restaurant";
-            }
-
-        
-            Workflow.sleep(Duration.ofSeconds(3));
-        
-
-            logger.info("Starting delivery child workflow...");
-            
-            ChildWorkflowOptions childOptions = new ChildWorkflowOptions.Builder()
-                .setTaskList("DeliverOrderTaskList")
-                .setWorkflowId("deliver-order-" + order.getId())
-                .setExecutionStartToCloseTimeout(Duration.ofMinutes(10))
-                .setTaskStartToCloseTimeout(Duration.ofMinutes(1))
-                .build();
+            OrderMetrics.recordSince(OrderMetrics.DECISION_LATENCY, receivedAt);
+            long decidedAt = Workflow.currentTimeMillis();
 
-            logger.info("Initiating delivery for order: {} with options: {}", order.getId(), childOptions);
-            
-            try {
-                // Execute child workflow and wait for completion
-                DeliverOrderWorkflow deliveryWorkflow = Workflow.newChildWorkflowStub(
-                    DeliverOrderWorkflow.class,
-                    childOptions
-                );
-                
-                logger.info("Starting child workflow for delivery of order: {}", order.getId());
-                // Start the child workflow asynchronously and wait for its completion
-                Promise<String> deliveryPromise = Async.function(deliveryWorkflow::deliverOrder, order.getId());
-                String deliveryResult = deliveryPromise.get();
-                
-                logger.info("Child workflow completed successfully for order: {} with result: {}", order.getId(), deliveryResult);
-                logger.info("Main workflow completed for order: {}", order.getId());
-                return "Your order is in front of your door!";
-            } catch (Exception e) {
-                logger.error("Delivery failed for order {}: {}", order.getId(), e.getMessage());
-                activities.processOrder(String.format("Order %s delivery failed: %s\nItems: %s", 
-                    order.getId(), e.getMessage(), order.getContent()));
-                return "Order " + order.getId() + " delivery failed: " + e.getMessage();
-            }
+            String result = fulfillment.complete(order, restaurantDecision, receivedAt, decidedAt, timing, this::setStatus);
+            logger.info("Main workflow completed for order: {}", order.getId());
+            return result;
         } catch (Exception e) {
             logger.error("Error in handleOrder workflow: {}", e.getMessage(), e);
+            status = OrderStatus.FAILED;
             throw e;
         }
     }
 
+    @Override
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    private void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    @Override
+    public void signalRoutedDecision(String restaurantId, boolean accepted) {
+        if (restaurantId == null || !restaurantId.equals(this.restaurantId)) {
+            logger.warn("Ignoring decision routed for restaurant {}, the order belongs to restaurant {}",
+                restaurantId, this.restaurantId);
+            OrderMetrics.increment(OrderMetrics.DECISION_MISROUTED);
+            return;
+        }
+        signalRestaurantDecision(accepted);
+    }
+
     @Override
     public void signalRestaurantDecision(boolean accepted) {
         logger.info("Received restaurant decision signal. Decision: {}", accepted ? "ACCEPTED" : "REJECTED");
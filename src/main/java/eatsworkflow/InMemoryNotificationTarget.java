@@ -0,0 +1,38 @@
+package eatsworkflow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps every notification in memory, for tests and local experiments. Also usable directly as a
+ * synchronous {@link NotificationSink}.
+ */
+public class InMemoryNotificationTarget implements NotificationTarget, NotificationSink {
+    private final List<String> notifications = new ArrayList<>();
+
+    @Override
+    public synchronized void write(List<String> batch) {
+        notifications.addAll(batch);
+    }
+
+    @Override
+    public synchronized void publish(String notification) {
+        notifications.add(notification);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    public synchronized List<String> getNotifications() {
+        return new ArrayList<>(notifications);
+    }
+
+    public synchronized void clear() {
+        notifications.clear();
+    }
+}
@@ -0,0 +1,148 @@
+package eatsworkflow;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shared dictionary for order item names.
+ *
+ * <p>Items listed in {@code menu-items.txt} have stable integer codes that compact payloads may carry instead
+ * of the name. Every other item is interned up to {@link #MAX_INTERNED} distinct names so repeated menu
+ * items share one {@code String} instance across all orders in the process.
+ */
+public final class ItemDictionary {
+    /** Mapper attribute that switches item lists between names and codes; only set for compact payloads. */
+    public static final String CODES_ATTRIBUTE = "eatsworkflow.itemCodes";
+    static final int MAX_INTERNED = 10_000;
+
+    private static final String[] SEEDED_ITEMS = loadSeededItems();
+    private static final Map<String, Integer> SEEDED_CODES = indexSeededItems();
+    private static final ConcurrentMap<String, String> INTERNED = new ConcurrentHashMap<>();
+
+    private ItemDictionary() {
+    }
+
+    public static String intern(String item) {
+        if (item == null) {
+            return null;
+        }
+        Integer code = SEEDED_CODES.get(item);
+        if (code != null) {
+            return SEEDED_ITEMS[code];
+        }
+        String existing = INTERNED.get(item);
+        if (existing != null) {
+            return existing;
+        }
+        // Past the cap, one-off items are kept as-is rather than growing the table without bound
+        if (INTERNED.size() >= MAX_INTERNED) {
+            return item;
+        }
+        existing = INTERNED.putIfAbsent(item, item);
+        return existing != null ? existing : item;
+    }
+
+    /** Returns the stable code of a seeded item, or -1 if the item has no code. */
+    public static int codeOf(String item) {
+        Integer code = item == null ? null : SEEDED_CODES.get(item);
+        return code == null ? -1 : code;
+    }
+
+    public static String itemOf(int code) {
+        if (code < 0 || code >= SEEDED_ITEMS.length) {
+            throw new IllegalArgumentException("Unknown item code: " + code);
+        }
+        return SEEDED_ITEMS[code];
+    }
+
+    private static String[] loadSeededItems() {
+        List<String> items = new ArrayList<>();
+        InputStream in = ItemDictionary.class.getResourceAsStream("/menu-items.txt");
+        if (in == null) {
+            return new String[0];
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    items.add(line.intern());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load menu-items.txt", e);
+        }
+        return items.toArray(new String[0]);
+    }
+
+    private static Map<String, Integer> indexSeededItems() {
+        Map<String, Integer> codes = new HashMap<>(SEEDED_ITEMS.length * 2);
+        for (int i = 0; i < SEEDED_ITEMS.length; i++) {
+            codes.put(SEEDED_ITEMS[i], i);
+        }
+        return Collections.unmodifiableMap(codes);
+    }
+
+    /**
+     * Writes item names, or seeded codes when {@link #CODES_ATTRIBUTE} is set on the serializer.
+     */
+    public static class ItemsSerializer extends JsonSerializer<List<String>> {
+        @Override
+        public void serialize(List<String> items, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            boolean useCodes = Boolean.TRUE.equals(provider.getAttribute(CODES_ATTRIBUTE));
+            gen.writeStartArray(items, items.size());
+            for (String item : items) {
+                int code = useCodes ? codeOf(item) : -1;
+                if (code >= 0) {
+                    gen.writeNumber(code);
+                } else {
+                    gen.writeString(item);
+                }
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    /**
+     * Reads a list of item names, decoding seeded codes only when {@link #CODES_ATTRIBUTE} is set, so a number
+     * in a plain JSON payload stays the literal item. Interning is left to the {@link Order} constructor.
+     */
+    public static class ItemsDeserializer extends JsonDeserializer<List<String>> {
+        @Override
+        public List<String> deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (!parser.isExpectedStartArrayToken()) {
+                return Collections.singletonList(parser.getValueAsString());
+            }
+            boolean useCodes = Boolean.TRUE.equals(context.getAttribute(CODES_ATTRIBUTE));
+            List<String> items = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (useCodes && token == JsonToken.VALUE_NUMBER_INT) {
+                    items.add(itemOf(parser.getIntValue()));
+                } else if (token == JsonToken.VALUE_NULL) {
+                    items.add(null);
+                } else {
+                    items.add(parser.getValueAsString());
+                }
+            }
+            return items;
+        }
+    }
+}
@@ -1,22 +1,32 @@
 package eatsworkflow;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.uber.cadence.converter.DataConverter;
 import com.uber.cadence.converter.DataConverterException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.lang.reflect.Type;
 import java.util.Arrays;
-import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.io.IOException;
 
 public class JacksonDataConverter implements DataConverter {
     private static final Logger logger = LoggerFactory.getLogger(JacksonDataConverter.class);
     private final ObjectMapper objectMapper;
+    private final ConcurrentMap<Type, ObjectReader> readers = new ConcurrentHashMap<>();
 
     public JacksonDataConverter() {
-        this.objectMapper = new ObjectMapper();
+        this(new ObjectMapper());
+    }
+
+    // Lets binary formats (see CompactDataConverter) reuse the same typed decoding path
+    public JacksonDataConverter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
     }
 
     @Override
@@ -39,46 +49,63 @@ public class JacksonDataConverter implements DataConverter {
     @Override
     public <T> T fromData(byte[] content, Class<T> valueClass, Type valueType) throws DataConverterException {
         try {
-            if (valueType != null) {
-                return objectMapper.readValue(content, TypeFactory.defaultInstance().constructType(valueType));
-            } else {
-                return objectMapper.readValue(content, valueClass);
-            }
+            return readerFor(valueType != null ? valueType : valueClass).readValue(content);
         } catch (IOException e) {
             throw new DataConverterException("Failed to deserialize content to " + valueClass + " with type " + valueType, e);
         }
     }
 
     @Override
-    public Object[] fromDataArray(byte[] content, Type... valueTypes) {
-        try {
-            if (content == null || content.length == 0) {
+    public Object[] fromDataArray(byte[] content, Type... valueTypes) throws DataConverterException {
+        if (content == null || content.length == 0) {
+            return new Object[0];
+        }
+        boolean typed = valueTypes != null && valueTypes.length > 0;
+        // Stream tokens straight into the target types instead of materializing an untyped tree first
+        try (JsonParser parser = objectMapper.getFactory().createParser(content)) {
+            JsonToken first = parser.nextToken();
+            if (first == null) {
                 return new Object[0];
             }
-            String contentStr = new String(content);
-            // Try to parse as a JSON array first
-            if (contentStr.trim().startsWith("[") && contentStr.trim().endsWith("]")) {
-                Object[] result = objectMapper.readValue(content, Object[].class);
-                if (valueTypes != null && valueTypes.length > 0) {
-                    Object[] typedResult = new Object[valueTypes.length];
-                    for (int i = 0; i < Math.min(valueTypes.length, result.length); i++) {
-                        if (result[i] != null) {
-                            typedResult[i] = objectMapper.convertValue(result[i], objectMapper.constructType(valueTypes[i]));
-                        }
-                    }
-                    return typedResult;
-                }
+            if (first != JsonToken.START_ARRAY) {
+                // Lenient path: a single non-array value is the first argument. toData writes one argument this
+                // way, so histories started before a method gained parameters decode the new ones as null
+                Object[] result = new Object[typed ? valueTypes.length : 1];
+                result[0] = readerFor(typed ? valueTypes[0] : Object.class).readValue(parser);
                 return result;
-            } else {
-                Object singleValue = objectMapper.readValue(content, Object.class);
-                if (valueTypes != null && valueTypes.length > 0) {
-                    Object typedValue = objectMapper.convertValue(singleValue, objectMapper.constructType(valueTypes[0]));
-                    return new Object[]{typedValue};
+            }
+            if (!typed) {
+                return readerFor(Object[].class).readValue(parser);
+            }
+
+            Object[] result = new Object[valueTypes.length];
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (index < valueTypes.length && parser.currentToken() != JsonToken.VALUE_NULL) {
+                    result[index] = readerFor(valueTypes[index]).readValue(parser);
+                } else {
+                    // Extra trailing arguments are ignored, nulls stay null
+                    parser.skipChildren();
                 }
-                return new Object[]{singleValue};
+                index++;
+            }
+            return result;
+        } catch (IOException e) {
+            throw new DataConverterException("Failed to deserialize data array", e);
+        }
+    }
+
+    // Type resolution and reader construction are cached; both are otherwise repeated on every decision task
+    private ObjectReader readerFor(Type type) {
+        ObjectReader reader = readers.get(type);
+        if (reader == null) {
+            JavaType javaType = objectMapper.getTypeFactory().constructType(type);
+            reader = objectMapper.readerFor(javaType);
+            ObjectReader existing = readers.putIfAbsent(type, reader);
+            if (existing != null) {
+                reader = existing;
             }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to deserialize data array", e);
         }
+        return reader;
     }
-} 
\ No newline at end of file
+}
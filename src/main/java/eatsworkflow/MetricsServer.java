@@ -0,0 +1,67 @@
+package eatsworkflow;
+
+import com.sun.net.httpserver.HttpServer;
+import com.uber.m3.tally.RootScopeBuilder;
+import com.uber.m3.tally.Scope;
+import com.uber.m3.util.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Root tally scope for the worker plus a local HTTP endpoint serving it at {@code /metrics}, and a
+ * readiness probe at {@code /ready} that answers 503 until {@link #setReady} is called.
+ */
+public class MetricsServer {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsServer.class);
+    private static final double REPORT_INTERVAL_SECONDS = 1;
+
+    private final PrometheusStatsReporter reporter = new PrometheusStatsReporter();
+    private final Scope scope;
+    private final HttpServer server;
+    private volatile boolean ready;
+
+    public MetricsServer(int port) throws IOException {
+        this.scope = new RootScopeBuilder()
+            .reporter(reporter)
+            .reportEvery(Duration.ofSeconds(REPORT_INTERVAL_SECONDS));
+
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = reporter.render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/ready", exchange -> {
+            byte[] body = (ready ? "ready" : "starting").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(ready ? 200 : 503, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Serving metrics on port {} at /metrics", server.getAddress().getPort());
+    }
+
+    public void setReady(boolean ready) {
+        this.ready = ready;
+    }
+
+    public Scope getScope() {
+        return scope;
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+}
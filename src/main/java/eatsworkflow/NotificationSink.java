@@ -0,0 +1,22 @@
+package eatsworkflow;
+
+/**
+ * Where {@link EatsActivityImpl} sends its notification banners.
+ */
+public interface NotificationSink extends AutoCloseable {
+    /**
+     * Hands over one notification; it is written followed by a line separator.
+     */
+    void publish(String notification);
+
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Writes on the calling thread with {@code System.out.println}, as activities always did.
+     */
+    static NotificationSink stdout() {
+        return System.out::println;
+    }
+}
@@ -0,0 +1,21 @@
+package eatsworkflow;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Output behind an {@link AsyncNotificationSink}. Only ever called from the sink's writer thread.
+ */
+public interface NotificationTarget extends AutoCloseable {
+    /**
+     * Writes a batch of notifications, each followed by a line separator. May buffer until {@link #flush()}.
+     */
+    void write(List<String> notifications) throws IOException;
+
+    void flush() throws IOException;
+
+    @Override
+    default void close() throws IOException {
+        flush();
+    }
+}
@@ -1,36 +1,46 @@
 package eatsworkflow;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.io.Serializable;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
+/**
+ * Immutable order. Deserialized on every decision task, including replays, so construction does no
+ * logging and item names are shared through {@link ItemDictionary}.
+ *
+ * <p>The JSON shape is {@code {"id": ..., "content": [...]}}; compact payloads may carry seeded items as codes.
+ */
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public class Order implements Serializable {
-    private static final long serialVersionUID = 1L;
-    private static final Logger logger = LoggerFactory.getLogger(Order.class);
-    
-    private String id;
-    private List<String> content;
+public final class Order implements Serializable {
+    private static final long serialVersionUID = 2L;
+
+    private final String id;
+    private final List<String> content;
 
     @JsonCreator
     public Order(
         @JsonProperty("id") String id,
-        @JsonProperty("content") List<String> content
+        @JsonProperty("content") @JsonDeserialize(using = ItemDictionary.ItemsDeserializer.class) List<String> content
     ) {
-        logger.info("Creating Order with id: {} and content: {}", id, content);
         this.id = id;
-        this.content = content;
+        this.content = content == null ? null : internItems(content);
     }
 
-    // Default constructor for serialization
-    public Order() {
-        logger.info("Creating empty Order");
+    private static List<String> internItems(List<String> items) {
+        String[] interned = new String[items.size()];
+        for (int i = 0; i < interned.length; i++) {
+            interned[i] = ItemDictionary.intern(items.get(i));
+        }
+        return Collections.unmodifiableList(Arrays.asList(interned));
     }
 
     @JsonProperty("id")
@@ -38,25 +48,31 @@ public class Order implements Serializable {
         return id;
     }
 
-    @JsonProperty("id")
-    public void setId(String id) {
-        logger.info("Setting Order id to: {}", id);
-        this.id = id;
-    }
-
     @JsonProperty("content")
+    @JsonSerialize(using = ItemDictionary.ItemsSerializer.class)
     public List<String> getContent() {
         return content;
     }
 
-    @JsonProperty("content")
-    public void setContent(List<String> content) {
-        logger.info("Setting Order content to: {}", content);
-        this.content = content;
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Order)) {
+            return false;
+        }
+        Order other = (Order) o;
+        return Objects.equals(id, other.id) && Objects.equals(content, other.content);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, content);
     }
 
     @Override
     public String toString() {
         return String.format("Order{id='%s', content=%s}", id, content);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,201 @@
+package eatsworkflow;
+
+import com.uber.cadence.WorkflowExecution;
+import com.uber.cadence.client.BatchRequest;
+import com.uber.cadence.client.WorkflowClient;
+import com.uber.cadence.client.WorkflowOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side API for {@link HandleEatsOrderWorkflow}.
+ *
+ * <p>Each order is submitted together with its restaurant decision in a single signal-with-start call, so
+ * there is no window in which the decision can arrive before the execution exists. The async methods run
+ * the blocking start calls on a bounded pool and never poll for results.
+ */
+public class OrderClient implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(OrderClient.class);
+    private static final Duration EXECUTION_TIMEOUT = Duration.ofSeconds(HandleEatsOrderWorkflow.EXECUTION_TIMEOUT_SECONDS);
+    private static final Duration BATCH_RUN_TIMEOUT = Duration.ofDays(1);
+
+    private final WorkflowClient workflowClient;
+    private final ExecutorService executor;
+    private final TaskLists taskLists;
+    private final ConcurrentMap<String, OrderTimingPolicy> restaurantTiming = new ConcurrentHashMap<>();
+
+    public OrderClient(WorkflowClient workflowClient) {
+        this(workflowClient, 32);
+    }
+
+    public OrderClient(WorkflowClient workflowClient, int submitThreads) {
+        this(workflowClient, submitThreads, TaskLists.fromEnvironment());
+    }
+
+    /**
+     * @param taskLists task list layout of the workers; must match theirs for orders to be picked up
+     */
+    public OrderClient(WorkflowClient workflowClient, int submitThreads, TaskLists taskLists) {
+        this.workflowClient = workflowClient;
+        this.executor = Executors.newFixedThreadPool(submitThreads);
+        this.taskLists = taskLists;
+    }
+
+    /**
+     * Sets the timing policy for orders of {@code restaurantId} that do not carry their own; null removes it.
+     */
+    public void setRestaurantTiming(String restaurantId, OrderTimingPolicy timing) {
+        if (timing == null) {
+            restaurantTiming.remove(restaurantId);
+        } else {
+            restaurantTiming.put(restaurantId, timing);
+        }
+    }
+
+    /**
+     * Starts {@code handleOrder} and delivers the restaurant decision in one round trip. Auto-accepted orders
+     * are started without a decision.
+     */
+    public WorkflowExecution submit(OrderRequest request) {
+        HandleEatsOrderWorkflow workflow = workflowClient.newWorkflowStub(
+            HandleEatsOrderWorkflow.class, newWorkflowOptions(request, taskLists));
+        OrderTimingPolicy timing = request.getTiming() != null
+            ? request.getTiming()
+            : restaurantTiming.get(request.getRestaurantId());
+
+        WorkflowExecution execution;
+        if (timing != null && timing.isAutoAccept()) {
+            execution = WorkflowClient.start(workflow::handleOrder,
+                request.getUserId(), request.getOrder(), request.getRestaurantId(), timing);
+        } else {
+            BatchRequest batch = workflowClient.newSignalWithStartRequest();
+            batch.add(workflow::handleOrder, request.getUserId(), request.getOrder(), request.getRestaurantId(), timing);
+            batch.add(workflow::signalRestaurantDecision, request.isAccepted());
+            execution = workflowClient.signalWithStart(batch);
+        }
+        logger.debug("Submitted order {} as workflow {}", request.getOrder().getId(), execution.getWorkflowId());
+        return execution;
+    }
+
+    public CompletableFuture<WorkflowExecution> submitAsync(OrderRequest request) {
+        return CompletableFuture.supplyAsync(() -> submit(request), executor);
+    }
+
+    /**
+     * Adds the order and its decision to the restaurant's {@link RestaurantBatchWorkflow}, starting the
+     * batch if none is running. Returns the batch execution; order results are only in the worker logs and metrics.
+     */
+    public WorkflowExecution submitBatched(OrderRequest request) {
+        RestaurantBatchWorkflow workflow = workflowClient.newWorkflowStub(
+            RestaurantBatchWorkflow.class, newBatchWorkflowOptions(request.getRestaurantId(), taskLists));
+
+        BatchRequest batch = workflowClient.newSignalWithStartRequest();
+        batch.add(workflow::processOrders, request.getRestaurantId(), (RestaurantBatchState) null);
+        batch.add(workflow::submitOrder, request.getUserId(), request.getOrder(), (Boolean) request.isAccepted());
+
+        WorkflowExecution execution = workflowClient.signalWithStart(batch);
+        logger.debug("Submitted order {} to batch {}", request.getOrder().getId(), execution.getWorkflowId());
+        return execution;
+    }
+
+    /**
+     * Sends decisions for many orders of one restaurant in a single call. The restaurant's
+     * {@link RestaurantRouterWorkflow} is started if needed and signals each order execution, holding on to
+     * decisions for orders that have not been submitted yet.
+     *
+     * @param decisions accepted flag per order ID
+     */
+    public WorkflowExecution submitDecisions(String restaurantId, Map<String, Boolean> decisions) {
+        RestaurantRouterWorkflow workflow = workflowClient.newWorkflowStub(
+            RestaurantRouterWorkflow.class, newRouterWorkflowOptions(restaurantId, taskLists));
+
+        BatchRequest batch = workflowClient.newSignalWithStartRequest();
+        batch.add(workflow::routeDecisions, restaurantId, (List<RestaurantDecision>) null);
+        batch.add(workflow::signalDecisions, decisions);
+
+        WorkflowExecution execution = workflowClient.signalWithStart(batch);
+        logger.debug("Submitted {} decisions to router {}", decisions.size(), execution.getWorkflowId());
+        return execution;
+    }
+
+    public CompletableFuture<WorkflowExecution> submitBatchedAsync(OrderRequest request) {
+        return CompletableFuture.supplyAsync(() -> submitBatched(request), executor);
+    }
+
+    /**
+     * Pipelines a batch of submissions. The returned future completes once every order is started and
+     * fails with the first submission error; the other submissions still run to completion.
+     */
+    public CompletableFuture<List<WorkflowExecution>> submitAll(Collection<OrderRequest> requests) {
+        List<CompletableFuture<WorkflowExecution>> futures = new ArrayList<>(requests.size());
+        for (OrderRequest request : requests) {
+            futures.add(submitAsync(request));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> {
+                List<WorkflowExecution> executions = new ArrayList<>(futures.size());
+                for (CompletableFuture<WorkflowExecution> future : futures) {
+                    executions.add(future.join());
+                }
+                return executions;
+            });
+    }
+
+    /**
+     * Completes with the {@code handleOrder} result. Uses the service long poll rather than client-side polling.
+     */
+    public CompletableFuture<String> getResultAsync(String workflowId) {
+        return workflowClient
+            .newUntypedWorkflowStub(workflowId, Optional.empty(), Optional.empty())
+            .getResultAsync(String.class);
+    }
+
+    public CompletableFuture<String> submitAndGetResultAsync(OrderRequest request) {
+        return submitAsync(request).thenCompose(execution -> getResultAsync(execution.getWorkflowId()));
+    }
+
+    // Orders, batches and routers of one restaurant all land on the restaurant's shard
+    static WorkflowOptions newWorkflowOptions(OrderRequest request, TaskLists taskLists) {
+        return new WorkflowOptions.Builder()
+            .setTaskList(taskLists.orderTaskList(request.getRestaurantId()))
+            .setWorkflowId(request.getWorkflowId())
+            .setExecutionStartToCloseTimeout(EXECUTION_TIMEOUT)
+            .build();
+    }
+
+    static WorkflowOptions newBatchWorkflowOptions(String restaurantId, TaskLists taskLists) {
+        return new WorkflowOptions.Builder()
+            .setTaskList(taskLists.orderTaskList(restaurantId))
+            .setWorkflowId("restaurant-batch-" + restaurantId)
+            .setExecutionStartToCloseTimeout(BATCH_RUN_TIMEOUT)
+            .build();
+    }
+
+    static WorkflowOptions newRouterWorkflowOptions(String restaurantId, TaskLists taskLists) {
+        return new WorkflowOptions.Builder()
+            .setTaskList(taskLists.orderTaskList(restaurantId))
+            .setWorkflowId("restaurant-router-" + restaurantId)
+            .setExecutionStartToCloseTimeout(BATCH_RUN_TIMEOUT)
+            .build();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            logger.warn("Order submissions still running after shutdown timeout");
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package eatsworkflow;
+
+import com.uber.cadence.ParentClosePolicy;
+import com.uber.cadence.activity.ActivityOptions;
+import com.uber.cadence.activity.LocalActivityOptions;
+import com.uber.cadence.common.RetryOptions;
+import com.uber.cadence.workflow.Async;
+import com.uber.cadence.workflow.ChildWorkflowOptions;
+import com.uber.cadence.workflow.Promise;
+import com.uber.cadence.workflow.Workflow;
+import java.time.Duration;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+
+/**
+ * Per-order steps shared by {@link HandleEatsOrderWorkflowImpl} and {@link RestaurantBatchWorkflowImpl}:
+ * input validation and everything that follows the restaurant decision. Only usable from workflow code.
+ */
+final class OrderFulfillment {
+    private static final Logger logger = Workflow.getLogger(OrderFulfillment.class);
+
+    private static final RetryOptions ACTIVITY_RETRY = new RetryOptions.Builder()
+        .setInitialInterval(Duration.ofSeconds(1))
+        .setMaximumInterval(Duration.ofSeconds(10))
+        .setMaximumAttempts(3)
+        .build();
+
+    private final WorkflowSettings settings;
+    private final EatsActivities activities;
+
+    OrderFulfillment(WorkflowSettings settings) {
+        this.settings = settings;
+        if (settings.getActivityMode() == WorkflowSettings.ActivityMode.LOCAL) {
+            // Same overall deadline and retry policy, without the task list round trip
+            this.activities = Workflow.newLocalActivityStub(
+                EatsActivities.class,
+                new LocalActivityOptions.Builder()
+                    .setScheduleToCloseTimeout(Duration.ofMinutes(1))
+                    .setRetryOptions(ACTIVITY_RETRY)
+                    .build());
+        } else {
+            this.activities = Workflow.newActivityStub(
+                EatsActivities.class,
+                new ActivityOptions.Builder()
+                    .setScheduleToCloseTimeout(Duration.ofMinutes(1))
+                    .setStartToCloseTimeout(Duration.ofSeconds(30))
+                    .setScheduleToStartTimeout(Duration.ofSeconds(30))
+                    .setRetryOptions(ACTIVITY_RETRY)
+                    .build());
+        }
+    }
+
+    EatsActivities activities() {
+        return activities;
+    }
+
+    static void validate(String userId, Order order, String restaurantId) {
+        // Validate inputs with more detailed error messages
+        if (userId == null || userId.trim().isEmpty()) {
+            logger.error("Invalid userId: {}", userId);
+            throw new IllegalArgumentException("User ID cannot be null or empty");
+        }
+        if (order == null) {
+            logger.error("Order is null");
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        if (order.getId() == null || order.getId().trim().isEmpty()) {
+            logger.error("Order ID is null or empty");
+            throw new IllegalArgumentException("Order ID cannot be null or empty");
+        }
+        if (order.getContent() == null) {
+            logger.error("Order content is null");
+            throw new IllegalArgumentException("Order content cannot be null");
+        }
+        if (restaurantId == null || restaurantId.trim().isEmpty()) {
+            logger.error("Invalid restaurantId: {}", restaurantId);
+            throw new IllegalArgumentException("Restaurant ID cannot be null or empty");
+        }
+    }
+
+    void notifyReceived(Order order) {
+        // Print order received message with details
+        logger.info("Your order received!");
+        activities.processOrder("Your order received! " + String.join(", ", order.getContent()));
+    }
+
+    /**
+     * Everything after the restaurant decision: rejection notice, or preparation delay and delivery.
+     *
+     * @param receivedAt workflow time the order was received
+     * @param decidedAt  workflow time the decision arrived
+     * @param timing     the order's timing policy, null for the defaults
+     * @param onStatus   told about every status the order moves through
+     */
+    String complete(Order order, boolean accepted, long receivedAt, long decidedAt,
+                    OrderTimingPolicy timing, Consumer<OrderStatus> onStatus) {
+        if (!accepted) {
+            onStatus.accept(OrderStatus.REJECTED);
+            OrderMetrics.increment(OrderMetrics.REJECTED);
+            logger.info("Order {} was rejected by the restaurant", order.getId());
+            activities.processOrder(String.format("Order %s was rejected by the restaurant\nItems: %s", 
+                order.getId(), order.getContent()));
+            OrderMetrics.recordSince(OrderMetrics.END_TO_END_LATENCY, receivedAt);
+            return "Order " + order.getId() + " was rejected by the restaurant";
+        }
+
+        onStatus.accept(OrderStatus.PREPARING);
+        OrderTimingPolicy effectiveTiming = OrderTimingPolicy.orDefaults(timing);
+        if (effectiveTiming.getPreparationDelayMillis() > 0) {
+            Workflow.sleep(effectiveTiming.getPreparationDelay());
+        }
+
+        logger.info("Starting delivery for order: {} with strategy: {}", order.getId(), settings.getDeliveryStrategy());
+        
+        try {
+            OrderMetrics.recordSince(OrderMetrics.DECISION_TO_DELIVERY, decidedAt);
+            long deliveryStartedAt = Workflow.currentTimeMillis();
+            onStatus.accept(OrderStatus.DELIVERING);
+            String deliveryResult = deliver(order, timing, receivedAt);
+            logger.info("Delivery step completed for order: {} with result: {}", order.getId(), deliveryResult);
+            // A detached delivery finishes after this workflow and records its own outcome and metrics
+            if (settings.getDeliveryStrategy() == WorkflowSettings.DeliveryStrategy.DETACHED) {
+                onStatus.accept(OrderStatus.HANDED_OFF);
+                return "Order " + order.getId() + " is out for delivery";
+            }
+            onStatus.accept(OrderStatus.DELIVERED);
+            OrderMetrics.recordSince(OrderMetrics.DELIVERY_DURATION, deliveryStartedAt);
+            OrderMetrics.recordSince(OrderMetrics.END_TO_END_LATENCY, receivedAt);
+            OrderMetrics.increment(OrderMetrics.DELIVERED);
+            return "Your order is in front of your door!";
+        } catch (Exception e) {
+            logger.error("Delivery failed for order {}: {}", order.getId(), e.getMessage());
+            OrderMetrics.increment(OrderMetrics.DELIVERY_FAILED);
+            onStatus.accept(OrderStatus.FAILED);
+            activities.processOrder(String.format("Order %s delivery failed: %s\nItems: %s", 
+                order.getId(), e.getMessage(), order.getContent()));
+            return "Order " + order.getId() + " delivery failed: " + e.getMessage();
+        }
+    }
+
+    // Runs delivery per the configured strategy. Awaited strategies return the delivery result; DETACHED
+    // returns as soon as the child has started and leaves the outcome to the child.
+    private String deliver(Order order, OrderTimingPolicy timing, long receivedAt) {
+        // Without a policy the child gets no request at all, exactly as before policies existed
+        Long deliveryDelayMillis = timing != null ? timing.getDeliveryDelayMillis() : null;
+        switch (settings.getDeliveryStrategy()) {
+            case INLINE:
+                // Same steps as the child, executed in this workflow with activities on this task list
+                return new DeliverOrderWorkflowImpl(settings).deliverOrder(order.getId(),
+                    timing != null ? new DeliveryRequest(null, null, deliveryDelayMillis, null) : null);
+            case DETACHED: {
+                DeliverOrderWorkflow deliveryWorkflow = Workflow.newChildWorkflowStub(
+                    DeliverOrderWorkflow.class,
+                    newDeliveryOptions(order.getId(), ParentClosePolicy.ABANDON));
+                DeliveryRequest request = new DeliveryRequest(true, order.getContent(), deliveryDelayMillis, receivedAt);
+                Async.function(deliveryWorkflow::deliverOrder, order.getId(), request);
+                // Fails here if the child could not be started, e.g. because of a duplicate workflow ID
+                Workflow.getWorkflowExecution(deliveryWorkflow).get();
+                logger.info("Detached delivery started for order: {}", order.getId());
+                return "Delivery started";
+            }
+            case CHILD:
+            default: {
+                DeliverOrderWorkflow deliveryWorkflow = Workflow.newChildWorkflowStub(
+                    DeliverOrderWorkflow.class,
+                    newDeliveryOptions(order.getId(), null));
+                logger.info("Starting child workflow for delivery of order: {}", order.getId());
+                // Start the child workflow asynchronously and wait for its completion
+                DeliveryRequest request = timing != null ? new DeliveryRequest(null, null, deliveryDelayMillis, null) : null;
+                Promise<String> deliveryPromise = Async.function(deliveryWorkflow::deliverOrder, order.getId(), request);
+                return deliveryPromise.get();
+            }
+        }
+    }
+
+    private ChildWorkflowOptions newDeliveryOptions(String orderId, ParentClosePolicy parentClosePolicy) {
+        ChildWorkflowOptions.Builder builder = new ChildWorkflowOptions.Builder()
+            .setTaskList(settings.getTaskLists().deliveryTaskList(orderId))
+            .setWorkflowId("deliver-order-" + orderId)
+            .setExecutionStartToCloseTimeout(Duration.ofMinutes(10))
+            .setTaskStartToCloseTimeout(Duration.ofMinutes(1));
+        if (parentClosePolicy != null) {
+            builder.setParentClosePolicy(parentClosePolicy);
+        }
+        return builder.build();
+    }
+}
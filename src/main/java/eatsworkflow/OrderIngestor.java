@@ -0,0 +1,308 @@
+package eatsworkflow;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uber.cadence.WorkflowExecution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams orders from a CSV ({@code items,status} or {@code items,status,restaurantId}) or JSON-lines file and
+ * starts a {@code handleOrder} execution for each one, together with its restaurant decision, through a single
+ * shared {@link OrderClient}. Rows without a restaurant go to {@code defaultRestaurantId}, so batching and
+ * task list sharding by restaurant see one restaurant rather than a new one per row.
+ *
+ * <p>The file is read line by line; at most {@code maxInFlight} submissions are outstanding at any time and
+ * the reader blocks until a slot frees up, so memory stays flat regardless of file size.
+ */
+public class OrderIngestor {
+    private static final Logger logger = LoggerFactory.getLogger(OrderIngestor.class);
+    private static final long PROGRESS_INTERVAL_MILLIS = 5000;
+    private static final int MAX_REPORTED_FAILURES = 100;
+    static final String DEFAULT_RESTAURANT_ID = "restaurant-1";
+
+    private final OrderClient orderClient;
+    private final int maxInFlight;
+    private final boolean batched;
+    private final String defaultRestaurantId;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public OrderIngestor(OrderClient orderClient, int maxInFlight) {
+        this(orderClient, maxInFlight, false);
+    }
+
+    /**
+     * @param batched submit into per-restaurant {@link RestaurantBatchWorkflow} executions instead of one
+     *                {@code handleOrder} execution per order
+     */
+    public OrderIngestor(OrderClient orderClient, int maxInFlight, boolean batched) {
+        this(orderClient, maxInFlight, batched, DEFAULT_RESTAURANT_ID);
+    }
+
+    /**
+     * @param defaultRestaurantId restaurant of the rows that do not name one
+     */
+    public OrderIngestor(OrderClient orderClient, int maxInFlight, boolean batched, String defaultRestaurantId) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+        this.orderClient = orderClient;
+        this.maxInFlight = maxInFlight;
+        this.batched = batched;
+        this.defaultRestaurantId = defaultRestaurantId;
+    }
+
+    public Report ingest(Path file) throws IOException, InterruptedException {
+        boolean jsonLines = isJsonLines(file);
+        logger.info("Ingesting {} as {} with at most {} orders in flight",
+            file, jsonLines ? "JSON lines" : "CSV", maxInFlight);
+
+        Report report = new Report();
+        Semaphore permits = new Semaphore(maxInFlight);
+        long startNanos = System.nanoTime();
+        long lastProgress = System.currentTimeMillis();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            long lineNumber = 0;
+            boolean restaurantColumn = false;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!jsonLines && lineNumber == 1) {
+                    restaurantColumn = line.split(",").length > 2;
+                    continue;
+                }
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                report.rows.incrementAndGet();
+
+                OrderRequest request;
+                try {
+                    request = jsonLines ? parseJsonLine(line) : parseCsvLine(line, restaurantColumn);
+                } catch (IllegalArgumentException | IOException e) {
+                    report.recordFailure(lineNumber, e.getMessage());
+                    continue;
+                }
+
+                // Backpressure: block the reader until an in-flight submission completes
+                permits.acquire();
+                final long rowNumber = lineNumber;
+                CompletableFuture<WorkflowExecution> submission = batched
+                    ? orderClient.submitBatchedAsync(request)
+                    : orderClient.submitAsync(request);
+                submission.whenComplete((execution, failure) -> {
+                    if (failure == null) {
+                        report.submitted.incrementAndGet();
+                    } else {
+                        Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+                        report.recordFailure(rowNumber, cause.getMessage());
+                    }
+                    permits.release();
+                });
+
+                long now = System.currentTimeMillis();
+                if (now - lastProgress >= PROGRESS_INTERVAL_MILLIS) {
+                    lastProgress = now;
+                    logger.info("Progress: {} rows read, {} submitted, {} failed, {} orders/sec",
+                        report.rows.get(), report.submitted.get(), report.failed.get(),
+                        String.format("%.1f", report.submitted.get() * 1e9 / (System.nanoTime() - startNanos)));
+                }
+            }
+        }
+
+        // Wait for the tail of the file to drain
+        permits.acquire(maxInFlight);
+        permits.release(maxInFlight);
+
+        report.elapsedNanos = System.nanoTime() - startNanos;
+        return report;
+    }
+
+    // CSV format: items,status where items are separated by ';' and status is accept or reject
+    // Columns are taken from the right, since quoted items may contain commas
+    OrderRequest parseCsvLine(String line, boolean restaurantColumn) {
+        String restaurantId = null;
+        if (restaurantColumn) {
+            int separator = line.lastIndexOf(',');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected 'items,status,restaurantId' but got: " + line);
+            }
+            restaurantId = line.substring(separator + 1).replace("\"", "").trim();
+            line = line.substring(0, separator);
+        }
+        int separator = line.lastIndexOf(',');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Expected 'items,status' but got: " + line);
+        }
+        String items = line.substring(0, separator).replace("\"", "").trim();
+        String status = line.substring(separator + 1).replace("\"", "").trim();
+        return newRequest(null, null, restaurantId == null || restaurantId.isEmpty() ? null : restaurantId,
+            Arrays.asList(items.split(";")), parseStatus(status), null);
+    }
+
+    // JSON-lines format: {"items": [...] or "a;b", "status": "accept", optional "orderId", "userId", "restaurantId"
+    // and "timing": {"autoAccept": true, "decisionTimeoutMillis": ..., "preparationDelayMillis": ..., "deliveryDelayMillis": ...}}
+    OrderRequest parseJsonLine(String line) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object but got: " + line);
+        }
+
+        JsonNode itemsNode = node.has("items") ? node.get("items") : node.get("content");
+        List<String> items = new ArrayList<>();
+        if (itemsNode != null && itemsNode.isArray()) {
+            itemsNode.forEach(item -> items.add(item.asText()));
+        } else if (itemsNode != null && itemsNode.isTextual()) {
+            items.addAll(Arrays.asList(itemsNode.asText().split(";")));
+        } else {
+            throw new IllegalArgumentException("Missing items in: " + line);
+        }
+
+        OrderTimingPolicy timing = null;
+        JsonNode timingNode = node.get("timing");
+        if (timingNode != null && !timingNode.isNull()) {
+            timing = objectMapper.treeToValue(timingNode, OrderTimingPolicy.class);
+        }
+
+        boolean accepted;
+        if (timing != null && timing.isAutoAccept()) {
+            accepted = true;
+        } else if (node.has("accepted")) {
+            accepted = node.get("accepted").asBoolean();
+        } else if (node.has("status")) {
+            accepted = parseStatus(node.get("status").asText());
+        } else {
+            throw new IllegalArgumentException("Missing status in: " + line);
+        }
+
+        return newRequest(text(node, "orderId"), text(node, "userId"), text(node, "restaurantId"), items, accepted, timing);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static boolean parseStatus(String status) {
+        String normalized = status.trim().toLowerCase();
+        if ("accept".equals(normalized)) {
+            return true;
+        }
+        if ("reject".equals(normalized)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Invalid status '" + status + "', expected accept or reject");
+    }
+
+    private OrderRequest newRequest(String orderId, String userId, String restaurantId,
+                                           List<String> items, boolean accepted, OrderTimingPolicy timing) {
+        List<String> content = new ArrayList<>(items.size());
+        for (String item : items) {
+            if (!item.trim().isEmpty()) {
+                content.add(item.trim());
+            }
+        }
+        return new OrderRequest(
+            userId != null ? userId : UUID.randomUUID().toString(),
+            new Order(orderId != null ? orderId : UUID.randomUUID().toString(), content),
+            restaurantId != null ? restaurantId : defaultRestaurantId,
+            accepted,
+            timing);
+    }
+
+    private static boolean isJsonLines(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".jsonl") || name.endsWith(".json") || name.endsWith(".ndjson");
+    }
+
+    /**
+     * Outcome of one ingestion run. Failures keep the line number so bad rows can be fixed and re-run.
+     */
+    public static class Report {
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong submitted = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<String> failures = new ArrayList<>();
+        private volatile long elapsedNanos;
+
+        private void recordFailure(long lineNumber, String reason) {
+            failed.incrementAndGet();
+            logger.error("Line {} failed: {}", lineNumber, reason);
+            synchronized (failures) {
+                if (failures.size() < MAX_REPORTED_FAILURES) {
+                    failures.add("line " + lineNumber + ": " + reason);
+                }
+            }
+        }
+
+        public long getRows() {
+            return rows.get();
+        }
+
+        public long getSubmitted() {
+            return submitted.get();
+        }
+
+        public long getFailed() {
+            return failed.get();
+        }
+
+        public List<String> getFailures() {
+            synchronized (failures) {
+                return new ArrayList<>(failures);
+            }
+        }
+
+        public double getOrdersPerSecond() {
+            return elapsedNanos == 0 ? 0 : submitted.get() * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows, %d submitted, %d failed in %.1fs (%.1f orders/sec)",
+                rows.get(), submitted.get(), failed.get(), elapsedNanos / 1e9, getOrdersPerSecond());
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: OrderIngestor <orders.csv|orders.jsonl> [maxInFlight]");
+            System.exit(1);
+        }
+        try {
+            int maxInFlight = args.length > 1
+                ? Integer.parseInt(args[1])
+                : Integer.parseInt(System.getenv().getOrDefault("INGEST_MAX_IN_FLIGHT", "32"));
+
+            // INGEST_MODE=batch sends orders to one batch workflow per restaurant
+            boolean batched = "batch".equals(System.getenv().getOrDefault("INGEST_MODE", "single"));
+            // Restaurant of the rows that do not name one
+            String restaurantId = System.getenv().getOrDefault("INGEST_RESTAURANT_ID", DEFAULT_RESTAURANT_ID);
+
+            Report report;
+            try (OrderClient orderClient = new OrderClient(WorkerStarter.newWorkflowClient(), maxInFlight)) {
+                report = new OrderIngestor(orderClient, maxInFlight, batched, restaurantId).ingest(Paths.get(args[0]));
+            }
+
+            logger.info("Ingestion finished: {}", report);
+            System.exit(report.getFailed() == 0 ? 0 : 2);
+        } catch (Exception e) {
+            logger.error("Error ingesting orders", e);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package eatsworkflow;
+
+import com.uber.cadence.activity.ActivityMethod;
+
+/**
+ * Lookups {@link RestaurantRouterWorkflow} needs when a decision signal fails, run as local activities.
+ */
+public interface OrderLookupActivities {
+    /**
+     * True if the execution exists and has closed, false if it does not exist (yet) or is still running.
+     */
+    @ActivityMethod
+    boolean isClosed(String workflowId);
+}
@@ -0,0 +1,35 @@
+package eatsworkflow;
+
+import com.uber.cadence.DescribeWorkflowExecutionRequest;
+import com.uber.cadence.EntityNotExistsError;
+import com.uber.cadence.WorkflowExecution;
+import com.uber.cadence.serviceclient.IWorkflowService;
+import org.apache.thrift.TException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class OrderLookupActivityImpl implements OrderLookupActivities {
+    private static final Logger logger = LoggerFactory.getLogger(OrderLookupActivityImpl.class);
+
+    private final IWorkflowService service;
+
+    public OrderLookupActivityImpl(IWorkflowService service) {
+        this.service = service;
+    }
+
+    @Override
+    public boolean isClosed(String workflowId) {
+        try {
+            return service.DescribeWorkflowExecution(new DescribeWorkflowExecutionRequest()
+                    .setDomain(WorkerStarter.DOMAIN)
+                    .setExecution(new WorkflowExecution().setWorkflowId(workflowId)))
+                .getWorkflowExecutionInfo()
+                .isSetCloseStatus();
+        } catch (EntityNotExistsError e) {
+            return false;
+        } catch (TException e) {
+            logger.error("Error describing workflow {}: {}", workflowId, e.getMessage());
+            throw new RuntimeException("Failed to describe workflow " + workflowId, e);
+        }
+    }
+}
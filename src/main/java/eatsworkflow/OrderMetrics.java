@@ -0,0 +1,42 @@
+package eatsworkflow;
+
+import com.uber.cadence.workflow.Workflow;
+import com.uber.m3.util.Duration;
+
+/**
+ * Domain metrics emitted from workflow code.
+ *
+ * <p>Always recorded through {@link Workflow#getMetricsScope()}, which drops emissions while replaying, and
+ * timed with {@link Workflow#currentTimeMillis()}, so replays neither double-count nor skew the timings.
+ */
+final class OrderMetrics {
+    static final String DECISION_LATENCY = "eats-order-decision-latency";
+    static final String DECISION_TO_DELIVERY = "eats-order-decision-to-delivery";
+    static final String DELIVERY_DURATION = "eats-order-delivery-duration";
+    static final String END_TO_END_LATENCY = "eats-order-end-to-end-latency";
+    static final String REJECTED = "eats-order-rejected";
+    static final String DECISION_TIMEOUT = "eats-order-decision-timeout";
+    static final String DELIVERY_FAILED = "eats-order-delivery-failed";
+    static final String DELIVERED = "eats-order-delivered";
+    // Emitted by DeliverOrderWorkflowImpl itself; per attempt, so retried deliveries count each failure
+    static final String DELIVERY_EXECUTION = "eats-delivery-execution";
+    static final String DELIVERY_ATTEMPT_FAILED = "eats-delivery-attempt-failed";
+
+    // Emitted by RestaurantRouterWorkflowImpl; a buffered decision counts once per failed attempt
+    static final String DECISION_ROUTED = "eats-decision-routed";
+    static final String DECISION_BUFFERED = "eats-decision-buffered";
+    static final String DECISION_DROPPED = "eats-decision-dropped";
+    // Emitted by HandleEatsOrderWorkflowImpl for routed decisions naming another restaurant
+    static final String DECISION_MISROUTED = "eats-decision-misrouted";
+
+    private OrderMetrics() {
+    }
+
+    static void recordSince(String timer, long startMillis) {
+        Workflow.getMetricsScope().timer(timer).record(Duration.ofMillis(Workflow.currentTimeMillis() - startMillis));
+    }
+
+    static void increment(String counter) {
+        Workflow.getMetricsScope().counter(counter).inc(1);
+    }
+}
@@ -0,0 +1,59 @@
+package eatsworkflow;
+
+/**
+ * One order submission: the arguments of {@code handleOrder} plus the restaurant decision to send for it.
+ */
+public class OrderRequest {
+    private final String userId;
+    private final Order order;
+    private final String restaurantId;
+    private final boolean accepted;
+    private final OrderTimingPolicy timing;
+
+    public OrderRequest(String userId, Order order, String restaurantId, boolean accepted) {
+        this(userId, order, restaurantId, accepted, null);
+    }
+
+    /**
+     * @param timing timing policy for this order, or null to use the restaurant's policy from the
+     *               {@link OrderClient} (and the workflow defaults if it has none)
+     */
+    public OrderRequest(String userId, Order order, String restaurantId, boolean accepted, OrderTimingPolicy timing) {
+        this.userId = userId;
+        this.order = order;
+        this.restaurantId = restaurantId;
+        this.accepted = accepted;
+        this.timing = timing;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public String getRestaurantId() {
+        return restaurantId;
+    }
+
+    public boolean isAccepted() {
+        return accepted;
+    }
+
+    public OrderTimingPolicy getTiming() {
+        return timing;
+    }
+
+    // Mirrors the "deliver-order-" prefix used for the child workflow
+    public String getWorkflowId() {
+        return "handle-order-" + order.getId();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OrderRequest{userId='%s', order=%s, restaurantId='%s', accepted=%s, timing=%s}",
+            userId, order, restaurantId, accepted, timing);
+    }
+}
@@ -0,0 +1,29 @@
+package eatsworkflow;
+
+/**
+ * Where an order stands, as returned by the {@link #QUERY} query of {@link HandleEatsOrderWorkflow} and
+ * {@link DeliverOrderWorkflow}. A delivery workflow only ever reports {@code DELIVERING}, {@code DELIVERED}
+ * or {@code FAILED}. With {@code DELIVERY_STRATEGY=detached} the order workflow ends at {@code HANDED_OFF}
+ * once the delivery workflow has started, and the outcome is read from the delivery workflow.
+ */
+public enum OrderStatus {
+    RECEIVED,
+    AWAITING_DECISION,
+    REJECTED,
+    PREPARING,
+    DELIVERING,
+    // Detached delivery started; final for the order workflow, the delivery workflow carries on
+    HANDED_OFF,
+    DELIVERED,
+    FAILED;
+
+    // Query name shared by both workflow types, so one client can read either
+    public static final String QUERY = "getStatus";
+
+    /**
+     * True for statuses an execution never leaves.
+     */
+    public boolean isFinal() {
+        return this == REJECTED || this == HANDED_OFF || this == DELIVERED || this == FAILED;
+    }
+}
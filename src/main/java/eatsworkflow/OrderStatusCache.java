@@ -0,0 +1,164 @@
+package eatsworkflow;
+
+import com.uber.cadence.client.WorkflowClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client-side read model of {@link OrderStatus}, for callers that look up statuses far more often than they
+ * change. Works for order and delivery workflow IDs alike, since both answer the {@link OrderStatus#QUERY} query.
+ *
+ * <ul>
+ *   <li>Statuses are cached for {@code ttl}, final ones for {@code finalTtl}; expired entries are swept on
+ *       writes, at most once per {@code ttl}</li>
+ *   <li>Concurrent lookups of an uncached workflow share one query</li>
+ *   <li>Bulk lookups answer hits from the cache and run the remaining queries in parallel on a bounded pool</li>
+ * </ul>
+ * Queries of closed workflows make the worker replay their history, so a long {@code finalTtl} saves the most.
+ */
+public class OrderStatusCache implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusCache.class);
+
+    private final WorkflowClient workflowClient;
+    private final long ttlNanos;
+    private final long finalTtlNanos;
+    private final ExecutorService executor;
+    private final ConcurrentMap<String, CachedStatus> statuses = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<OrderStatus>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepNanos = new AtomicLong(System.nanoTime());
+
+    public OrderStatusCache(WorkflowClient workflowClient) {
+        this(workflowClient, Duration.ofSeconds(2), Duration.ofMinutes(10), 16);
+    }
+
+    /**
+     * @param ttl          how long an in-progress status is served before it is queried again
+     * @param finalTtl     the same for final statuses, which never change
+     * @param queryThreads maximum number of queries in flight
+     */
+    public OrderStatusCache(WorkflowClient workflowClient, Duration ttl, Duration finalTtl, int queryThreads) {
+        this.workflowClient = workflowClient;
+        this.ttlNanos = ttl.toNanos();
+        this.finalTtlNanos = finalTtl.toNanos();
+        this.executor = Executors.newFixedThreadPool(queryThreads);
+    }
+
+    public OrderStatus getStatus(String workflowId) {
+        try {
+            return getStatusAsync(workflowId).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Completes from the cache when possible, otherwise with the result of a query. Failed queries are not cached.
+     */
+    public CompletableFuture<OrderStatus> getStatusAsync(String workflowId) {
+        CachedStatus cached = statuses.get(workflowId);
+        if (cached != null && cached.expiresAtNanos - System.nanoTime() > 0) {
+            return CompletableFuture.completedFuture(cached.status);
+        }
+        CompletableFuture<OrderStatus> query = new CompletableFuture<>();
+        CompletableFuture<OrderStatus> existing = inFlight.putIfAbsent(workflowId, query);
+        if (existing != null) {
+            return existing;
+        }
+        executor.execute(() -> {
+            try {
+                OrderStatus status = workflowClient
+                    .newUntypedWorkflowStub(workflowId, Optional.empty(), Optional.empty())
+                    .query(OrderStatus.QUERY, OrderStatus.class);
+                put(workflowId, status);
+                query.complete(status);
+            } catch (Exception e) {
+                query.completeExceptionally(e);
+            } finally {
+                inFlight.remove(workflowId, query);
+            }
+        });
+        return query;
+    }
+
+    /**
+     * Looks up many workflows at once. The result keeps the order of {@code workflowIds} and leaves out the
+     * workflows whose query failed, e.g. because they do not exist.
+     */
+    public CompletableFuture<Map<String, OrderStatus>> getStatusesAsync(Collection<String> workflowIds) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(workflowIds));
+        List<CompletableFuture<OrderStatus>> futures = new ArrayList<>(ids.size());
+        for (String workflowId : ids) {
+            futures.add(getStatusAsync(workflowId));
+        }
+        return CompletableFuture.allOf(futures.stream()
+                .map(future -> future.handle((status, error) -> null))
+                .toArray(CompletableFuture[]::new))
+            .thenApply(ignored -> {
+                Map<String, OrderStatus> result = new LinkedHashMap<>();
+                for (int i = 0; i < ids.size(); i++) {
+                    CompletableFuture<OrderStatus> future = futures.get(i);
+                    if (future.isCompletedExceptionally()) {
+                        logger.debug("Status query for {} failed", ids.get(i));
+                        continue;
+                    }
+                    result.put(ids.get(i), future.join());
+                }
+                return result;
+            });
+    }
+
+    /**
+     * Drops the cached status, e.g. after signalling the workflow, so the next lookup queries again.
+     */
+    public void invalidate(String workflowId) {
+        statuses.remove(workflowId);
+    }
+
+    private void put(String workflowId, OrderStatus status) {
+        long now = System.nanoTime();
+        long ttl = status != null && status.isFinal() ? finalTtlNanos : ttlNanos;
+        statuses.put(workflowId, new CachedStatus(status, now + ttl));
+
+        long lastSweep = lastSweepNanos.get();
+        if (now - lastSweep >= ttlNanos && lastSweepNanos.compareAndSet(lastSweep, now)) {
+            statuses.values().removeIf(cached -> cached.expiresAtNanos - now <= 0);
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            logger.warn("Status queries still running after shutdown timeout");
+        }
+    }
+
+    private static final class CachedStatus {
+        private final OrderStatus status;
+        private final long expiresAtNanos;
+
+        private CachedStatus(OrderStatus status, long expiresAtNanos) {
+            this.status = status;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
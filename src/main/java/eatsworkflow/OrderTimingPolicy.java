@@ -0,0 +1,123 @@
+package eatsworkflow;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.Duration;
+
+/**
+ * Timing of one order, passed to {@code handleOrder}. A null policy, and any field missing from the JSON,
+ * means the original timing: wait up to 60s for the decision, 3s preparation, 4s delivery.
+ *
+ * <p>With {@code autoAccept} the order is accepted without waiting for a restaurant decision signal. Zero
+ * delays skip the corresponding timer altogether.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class OrderTimingPolicy {
+    static final long DEFAULT_DECISION_TIMEOUT_MILLIS = 60_000;
+    static final long DEFAULT_PREPARATION_DELAY_MILLIS = 3_000;
+    static final long DEFAULT_DELIVERY_DELAY_MILLIS = 4_000;
+
+    private static final OrderTimingPolicy DEFAULTS = new Builder().build();
+
+    private final boolean autoAccept;
+    private final long decisionTimeoutMillis;
+    private final long preparationDelayMillis;
+    private final long deliveryDelayMillis;
+
+    @JsonCreator
+    OrderTimingPolicy(
+        @JsonProperty("autoAccept") Boolean autoAccept,
+        @JsonProperty("decisionTimeoutMillis") Long decisionTimeoutMillis,
+        @JsonProperty("preparationDelayMillis") Long preparationDelayMillis,
+        @JsonProperty("deliveryDelayMillis") Long deliveryDelayMillis
+    ) {
+        this.autoAccept = autoAccept != null && autoAccept;
+        this.decisionTimeoutMillis = decisionTimeoutMillis != null ? decisionTimeoutMillis : DEFAULT_DECISION_TIMEOUT_MILLIS;
+        this.preparationDelayMillis = preparationDelayMillis != null ? preparationDelayMillis : DEFAULT_PREPARATION_DELAY_MILLIS;
+        this.deliveryDelayMillis = deliveryDelayMillis != null ? deliveryDelayMillis : DEFAULT_DELIVERY_DELAY_MILLIS;
+        if (this.decisionTimeoutMillis <= 0 || this.preparationDelayMillis < 0 || this.deliveryDelayMillis < 0) {
+            throw new IllegalArgumentException("Invalid timing policy: " + this);
+        }
+    }
+
+    public static OrderTimingPolicy defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Returns {@code policy}, or the defaults when it is null, as for executions started without one.
+     */
+    static OrderTimingPolicy orDefaults(OrderTimingPolicy policy) {
+        return policy != null ? policy : DEFAULTS;
+    }
+
+    @JsonProperty("autoAccept")
+    public boolean isAutoAccept() {
+        return autoAccept;
+    }
+
+    @JsonProperty("decisionTimeoutMillis")
+    public long getDecisionTimeoutMillis() {
+        return decisionTimeoutMillis;
+    }
+
+    @JsonProperty("preparationDelayMillis")
+    public long getPreparationDelayMillis() {
+        return preparationDelayMillis;
+    }
+
+    @JsonProperty("deliveryDelayMillis")
+    public long getDeliveryDelayMillis() {
+        return deliveryDelayMillis;
+    }
+
+    Duration getDecisionTimeout() {
+        return Duration.ofMillis(decisionTimeoutMillis);
+    }
+
+    Duration getPreparationDelay() {
+        return Duration.ofMillis(preparationDelayMillis);
+    }
+
+    Duration getDeliveryDelay() {
+        return Duration.ofMillis(deliveryDelayMillis);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OrderTimingPolicy{autoAccept=%s, decisionTimeoutMillis=%d, preparationDelayMillis=%d, deliveryDelayMillis=%d}",
+            autoAccept, decisionTimeoutMillis, preparationDelayMillis, deliveryDelayMillis);
+    }
+
+    public static class Builder {
+        private boolean autoAccept;
+        private long decisionTimeoutMillis = DEFAULT_DECISION_TIMEOUT_MILLIS;
+        private long preparationDelayMillis = DEFAULT_PREPARATION_DELAY_MILLIS;
+        private long deliveryDelayMillis = DEFAULT_DELIVERY_DELAY_MILLIS;
+
+        public Builder setAutoAccept(boolean autoAccept) {
+            this.autoAccept = autoAccept;
+            return this;
+        }
+
+        public Builder setDecisionTimeout(Duration decisionTimeout) {
+            this.decisionTimeoutMillis = decisionTimeout.toMillis();
+            return this;
+        }
+
+        public Builder setPreparationDelay(Duration preparationDelay) {
+            this.preparationDelayMillis = preparationDelay.toMillis();
+            return this;
+        }
+
+        public Builder setDeliveryDelay(Duration deliveryDelay) {
+            this.deliveryDelayMillis = deliveryDelay.toMillis();
+            return this;
+        }
+
+        public OrderTimingPolicy build() {
+            return new OrderTimingPolicy(autoAccept, decisionTimeoutMillis, preparationDelayMillis, deliveryDelayMillis);
+        }
+    }
+}
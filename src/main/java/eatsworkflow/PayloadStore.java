@@ -0,0 +1,17 @@
+package eatsworkflow;
+
+import java.io.IOException;
+
+/**
+ * Content-addressed blob store behind {@link ClaimCheckDataConverter}. Keys are lowercase hex SHA-256 digests
+ * of the payload, so writing the same payload twice is harmless and stored blobs never change. Every worker
+ * and client that decodes claim-checked payloads must see the same store.
+ */
+public interface PayloadStore {
+    void put(String key, byte[] payload) throws IOException;
+
+    /**
+     * @throws java.nio.file.NoSuchFileException or another {@link IOException} if the blob is not available
+     */
+    byte[] get(String key) throws IOException;
+}
@@ -0,0 +1,179 @@
+package eatsworkflow;
+
+import com.uber.m3.tally.Buckets;
+import com.uber.m3.tally.CapableOf;
+import com.uber.m3.tally.Capabilities;
+import com.uber.m3.tally.StatsReporter;
+import com.uber.m3.util.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Tally reporter that keeps cumulative values in memory and renders them in the Prometheus text format.
+ *
+ * <p>Counters accumulate the deltas tally reports, gauges keep the last value, and timers and histograms
+ * become Prometheus histograms in seconds. Timers use {@link #TIMER_BUCKETS_SECONDS}, which span the
+ * sub-second activity paths up to the 10 minute workflow timeout. Each metric family is preceded by its
+ * {@code # TYPE} line.
+ */
+public class PrometheusStatsReporter implements StatsReporter {
+    static final double[] TIMER_BUCKETS_SECONDS =
+        {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120, 300, 600};
+
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Double> gauges = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    @Override
+    public void reportCounter(String name, Map<String, String> tags, long value) {
+        counters.computeIfAbsent(series(name, tags, "_total"), k -> new LongAdder()).add(value);
+    }
+
+    @Override
+    public void reportGauge(String name, Map<String, String> tags, double value) {
+        gauges.put(series(name, tags, ""), value);
+    }
+
+    @Override
+    public void reportTimer(String name, Map<String, String> tags, Duration interval) {
+        Histogram histogram = histograms.computeIfAbsent(series(name, tags, "_seconds"), k -> new Histogram(TIMER_BUCKETS_SECONDS));
+        double seconds = interval.getSeconds();
+        histogram.count.increment();
+        histogram.sum.add(seconds);
+        for (double bound : TIMER_BUCKETS_SECONDS) {
+            if (seconds <= bound) {
+                histogram.bucket(bound).increment();
+                return;
+            }
+        }
+        histogram.bucket(Double.POSITIVE_INFINITY).increment();
+    }
+
+    @Override
+    public void reportHistogramValueSamples(String name, Map<String, String> tags, Buckets buckets,
+                                            double bucketLowerBound, double bucketUpperBound, long samples) {
+        Histogram histogram = histograms.computeIfAbsent(series(name, tags, ""), k -> new Histogram());
+        histogram.bucket(bucketUpperBound).add(samples);
+        histogram.count.add(samples);
+    }
+
+    @Override
+    public void reportHistogramDurationSamples(String name, Map<String, String> tags, Buckets buckets,
+                                               Duration bucketLowerBound, Duration bucketUpperBound, long samples) {
+        Histogram histogram = histograms.computeIfAbsent(series(name, tags, "_seconds"), k -> new Histogram());
+        histogram.bucket(bucketUpperBound.getSeconds()).add(samples);
+        histogram.count.add(samples);
+    }
+
+    @Override
+    public Capabilities capabilities() {
+        return CapableOf.REPORTING_TAGGING;
+    }
+
+    @Override
+    public void flush() {
+        // Values are rendered on scrape
+    }
+
+    @Override
+    public void close() {
+    }
+
+    public String render() {
+        StringBuilder out = new StringBuilder(8192);
+        render(counters, "counter", out, (series, value) -> out.append(series).append(' ').append(value.sum()).append('\n'));
+        render(gauges, "gauge", out, (series, value) -> out.append(series).append(' ').append(value).append('\n'));
+        render(histograms, "histogram", out, (series, histogram) -> histogram.render(series, out));
+        return out.toString();
+    }
+
+    // Groups series by family rather than sorting them as strings, which would interleave e.g. a_total{...}
+    // with a_total_x, since every family needs one # TYPE line followed by all of its series
+    private static <V> void render(Map<String, V> series, String type, StringBuilder out, BiConsumer<String, V> line) {
+        Map<String, Map<String, V>> families = new TreeMap<>();
+        series.forEach((key, value) -> families.computeIfAbsent(name(key), k -> new TreeMap<>()).put(key, value));
+        families.forEach((name, members) -> {
+            out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+            members.forEach(line);
+        });
+    }
+
+    private static String name(String series) {
+        int brace = series.indexOf('{');
+        return brace < 0 ? series : series.substring(0, brace);
+    }
+
+    // Series key in exposition form: name{tag="value",...}
+    private static String series(String name, Map<String, String> tags, String suffix) {
+        StringBuilder key = new StringBuilder(sanitize(name)).append(suffix);
+        if (tags != null && !tags.isEmpty()) {
+            key.append('{');
+            boolean first = true;
+            for (Map.Entry<String, String> tag : new TreeMap<>(tags).entrySet()) {
+                if (!first) {
+                    key.append(',');
+                }
+                first = false;
+                key.append(sanitize(tag.getKey())).append("=\"")
+                    .append(String.valueOf(tag.getValue()).replace("\\", "\\\\").replace("\"", "\\\""))
+                    .append('"');
+            }
+            key.append('}');
+        }
+        return key.toString();
+    }
+
+    private static String sanitize(String name) {
+        StringBuilder sanitized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            sanitized.append(Character.isLetterOrDigit(c) || c == '_' || c == ':' ? c : '_');
+        }
+        return sanitized.toString();
+    }
+
+    private static class Histogram {
+        private final ConcurrentSkipListMap<Double, LongAdder> buckets = new ConcurrentSkipListMap<>();
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sum = new DoubleAdder();
+
+        Histogram(double... upperBounds) {
+            // Pre-registered buckets render as explicit zeros instead of being absent
+            for (double upperBound : upperBounds) {
+                bucket(upperBound);
+            }
+        }
+
+        LongAdder bucket(double upperBound) {
+            return buckets.computeIfAbsent(upperBound, k -> new LongAdder());
+        }
+
+        void render(String series, StringBuilder out) {
+            int brace = series.indexOf('{');
+            String name = name(series);
+            String labels = brace < 0 ? "" : series.substring(brace + 1, series.length() - 1);
+            String separator = labels.isEmpty() ? "" : ",";
+
+            long cumulative = 0;
+            for (Map.Entry<Double, LongAdder> bucket : buckets.entrySet()) {
+                cumulative += bucket.getValue().sum();
+                String le = bucket.getKey().isInfinite() ? "+Inf" : String.valueOf(bucket.getKey());
+                out.append(name).append("_bucket{").append(labels).append(separator)
+                    .append("le=\"").append(le).append("\"} ").append(cumulative).append('\n');
+            }
+            if (!buckets.containsKey(Double.POSITIVE_INFINITY)) {
+                out.append(name).append("_bucket{").append(labels).append(separator)
+                    .append("le=\"+Inf\"} ").append(count.sum()).append('\n');
+            }
+            String suffix = labels.isEmpty() ? "" : "{" + labels + "}";
+            out.append(name).append("_sum").append(suffix).append(' ').append(sum.sum()).append('\n');
+            out.append(name).append("_count").append(suffix).append(' ').append(count.sum()).append('\n');
+        }
+    }
+}
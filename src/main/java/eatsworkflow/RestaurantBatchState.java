@@ -0,0 +1,88 @@
+package eatsworkflow;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What a {@link RestaurantBatchWorkflow} run hands to the next one when it continues as new: orders that
+ * were received but not started yet, and the decisions already received for them.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class RestaurantBatchState {
+    private final List<PendingOrder> pendingOrders;
+    private final Map<String, Boolean> decisions;
+
+    @JsonCreator
+    public RestaurantBatchState(
+        @JsonProperty("pendingOrders") List<PendingOrder> pendingOrders,
+        @JsonProperty("decisions") Map<String, Boolean> decisions
+    ) {
+        this.pendingOrders = pendingOrders == null
+            ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(pendingOrders));
+        this.decisions = decisions == null
+            ? Collections.emptyMap() : Collections.unmodifiableMap(new LinkedHashMap<>(decisions));
+    }
+
+    @JsonProperty("pendingOrders")
+    public List<PendingOrder> getPendingOrders() {
+        return pendingOrders;
+    }
+
+    @JsonProperty("decisions")
+    public Map<String, Boolean> getDecisions() {
+        return decisions;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RestaurantBatchState{pendingOrders=%d, decisions=%d}", pendingOrders.size(), decisions.size());
+    }
+
+    /**
+     * An order received by signal. {@code receivedAt} is workflow time, so the decision timeout keeps
+     * counting from the original signal across runs.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static final class PendingOrder {
+        private final String userId;
+        private final Order order;
+        private final long receivedAt;
+
+        @JsonCreator
+        public PendingOrder(
+            @JsonProperty("userId") String userId,
+            @JsonProperty("order") Order order,
+            @JsonProperty("receivedAt") long receivedAt
+        ) {
+            this.userId = userId;
+            this.order = order;
+            this.receivedAt = receivedAt;
+        }
+
+        @JsonProperty("userId")
+        public String getUserId() {
+            return userId;
+        }
+
+        @JsonProperty("order")
+        public Order getOrder() {
+            return order;
+        }
+
+        @JsonProperty("receivedAt")
+        public long getReceivedAt() {
+            return receivedAt;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PendingOrder{userId='%s', order=%s, receivedAt=%d}", userId, order, receivedAt);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package eatsworkflow;
+
+import com.uber.cadence.workflow.SignalMethod;
+import com.uber.cadence.workflow.WorkflowMethod;
+
+/**
+ * Processes all orders of one restaurant inside a single execution. Orders arrive as signals and each runs
+ * the same validation, decision wait, preparation delay and delivery as {@code handleOrder}, concurrently.
+ *
+ * <p>A run continues as new after {@link RestaurantBatchWorkflowImpl#MAX_ORDERS_PER_RUN} orders, carrying
+ * queued orders and decisions over in a {@link RestaurantBatchState}, and completes once it has been idle
+ * for {@link RestaurantBatchWorkflowImpl#IDLE_TIMEOUT}.
+ */
+public interface RestaurantBatchWorkflow {
+    @WorkflowMethod(
+        executionStartToCloseTimeoutSeconds = 86400, // 1 day per run; runs normally close on idle or continue as new
+        taskStartToCloseTimeoutSeconds = 60 // 1 minute task timeout
+    )
+    String processOrders(String restaurantId, RestaurantBatchState state);
+
+    // accepted may be null when the decision is sent later with signalRestaurantDecision
+    @SignalMethod
+    void submitOrder(String userId, Order order, Boolean accepted);
+
+    @SignalMethod
+    void signalRestaurantDecision(String orderId, boolean accepted);
+}
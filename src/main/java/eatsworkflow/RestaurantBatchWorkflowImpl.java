@@ -0,0 +1,161 @@
+package eatsworkflow;
+
+import com.uber.cadence.workflow.Async;
+import com.uber.cadence.workflow.Workflow;
+import eatsworkflow.RestaurantBatchState.PendingOrder;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import org.slf4j.Logger;
+
+public class RestaurantBatchWorkflowImpl implements RestaurantBatchWorkflow {
+    private static final Logger logger = Workflow.getLogger(RestaurantBatchWorkflowImpl.class);
+
+    // Each order adds a few dozen history events, so this keeps a run well below the history size limits
+    static final int MAX_ORDERS_PER_RUN = 200;
+    static final Duration IDLE_TIMEOUT = Duration.ofMinutes(10);
+
+    private final OrderFulfillment fulfillment;
+
+    private final Queue<PendingOrder> queued = new ArrayDeque<>();
+    // Only for queued or in-flight orders, so nothing is left behind once an order finishes
+    private final Map<String, Boolean> decisions = new LinkedHashMap<>();
+    // Queued or in flight, to drop duplicate submissions whose delivery child IDs would collide
+    private final Set<String> activeOrderIds = new HashSet<>();
+    private int started;
+    private int inFlight;
+    private int completed;
+    private int failed;
+
+    public RestaurantBatchWorkflowImpl() {
+        this(WorkflowSettings.defaults());
+    }
+
+    public RestaurantBatchWorkflowImpl(WorkflowSettings settings) {
+        this.fulfillment = new OrderFulfillment(settings);
+    }
+
+    @Override
+    public String processOrders(String restaurantId, RestaurantBatchState state) {
+        if (state != null) {
+            logger.info("Continuing batch for restaurant {} with {}", restaurantId, state);
+            for (PendingOrder pending : state.getPendingOrders()) {
+                enqueue(pending);
+            }
+            // Earlier runs also kept decisions for orders they never received; those are not carried any further
+            for (Map.Entry<String, Boolean> decision : state.getDecisions().entrySet()) {
+                if (activeOrderIds.contains(decision.getKey())) {
+                    decisions.put(decision.getKey(), decision.getValue());
+                }
+            }
+        }
+
+        while (true) {
+            while (!queued.isEmpty() && started < MAX_ORDERS_PER_RUN) {
+                start(restaurantId, queued.poll());
+            }
+            if (started >= MAX_ORDERS_PER_RUN) {
+                break;
+            }
+            if (inFlight > 0) {
+                Workflow.await(() -> !queued.isEmpty() || inFlight == 0);
+            } else if (!Workflow.await(IDLE_TIMEOUT, () -> !queued.isEmpty())) {
+                logger.info("Batch for restaurant {} idle, completing: {}", restaurantId, summary());
+                return summary();
+            }
+        }
+
+        // Let started orders finish in this run; new signals keep queueing meanwhile
+        Workflow.await(() -> inFlight == 0);
+        RestaurantBatchState next = new RestaurantBatchState(new ArrayList<>(queued), decisions);
+        logger.info("Batch for restaurant {} continuing as new after {}, carrying {}", restaurantId, summary(), next);
+        Workflow.continueAsNew(restaurantId, next);
+        return summary();
+    }
+
+    private void start(String restaurantId, PendingOrder pending) {
+        started++;
+        inFlight++;
+        // Runs in its own workflow thread, so orders wait on their decisions and deliveries concurrently
+        Async.procedure(() -> {
+            try {
+                String result = handle(restaurantId, pending);
+                completed++;
+                logger.info("Batched order completed: {}", result);
+            } catch (Exception e) {
+                failed++;
+                logger.error("Batched order {} failed: {}", pending.getOrder(), e.getMessage());
+            } finally {
+                if (pending.getOrder() != null) {
+                    activeOrderIds.remove(pending.getOrder().getId());
+                    decisions.remove(pending.getOrder().getId());
+                }
+                inFlight--;
+            }
+        });
+    }
+
+    // Same steps as handleOrder, with the decision looked up by order ID
+    private String handle(String restaurantId, PendingOrder pending) {
+        Order order = pending.getOrder();
+        OrderFulfillment.validate(pending.getUserId(), order, restaurantId);
+        fulfillment.notifyReceived(order);
+
+        long remaining = OrderTimingPolicy.DEFAULT_DECISION_TIMEOUT_MILLIS
+            - (Workflow.currentTimeMillis() - pending.getReceivedAt());
+        boolean decisionReceived = Workflow.await(
+            Duration.ofMillis(Math.max(0, remaining)), () -> decisions.containsKey(order.getId()));
+        if (!decisionReceived) {
+            logger.error("Timeout waiting for restaurant decision for order {}", order.getId());
+            OrderMetrics.increment(OrderMetrics.DECISION_TIMEOUT);
+            throw new RuntimeException("Timeout waiting for restaurant decision");
+        }
+        OrderMetrics.recordSince(OrderMetrics.DECISION_LATENCY, pending.getReceivedAt());
+        long decidedAt = Workflow.currentTimeMillis();
+
+        // Batched orders have no execution of their own to query, so their statuses are not tracked
+        return fulfillment.complete(order, decisions.get(order.getId()),
+            pending.getReceivedAt(), decidedAt, null, status -> { });
+    }
+
+    private boolean enqueue(PendingOrder pending) {
+        Order order = pending.getOrder();
+        if (order != null && order.getId() != null && !activeOrderIds.add(order.getId())) {
+            logger.warn("Order {} is already queued or in progress. Ignoring submission.", order.getId());
+            return false;
+        }
+        return queued.add(pending);
+    }
+
+    private String summary() {
+        return String.format("%d orders started, %d completed, %d failed", started, completed, failed);
+    }
+
+    @Override
+    public void submitOrder(String userId, Order order, Boolean accepted) {
+        logger.info("Received order {} for batch", order);
+        boolean queuedOrder = enqueue(new PendingOrder(userId, order, Workflow.currentTimeMillis()));
+        if (queuedOrder && accepted != null && order != null && order.getId() != null) {
+            signalRestaurantDecision(order.getId(), accepted);
+        }
+    }
+
+    @Override
+    public void signalRestaurantDecision(String orderId, boolean accepted) {
+        logger.info("Received restaurant decision for order {}. Decision: {}", orderId, accepted ? "ACCEPTED" : "REJECTED");
+        if (!activeOrderIds.contains(orderId)) {
+            logger.warn("Order {} is not queued or in progress. Ignoring decision.", orderId);
+            return;
+        }
+        if (decisions.containsKey(orderId)) {
+            logger.warn("Decision for order {} already received. Ignoring signal.", orderId);
+            return;
+        }
+        decisions.put(orderId, accepted);
+    }
+}
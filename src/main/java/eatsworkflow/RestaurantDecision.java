@@ -0,0 +1,47 @@
+package eatsworkflow;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A decision held by {@link RestaurantRouterWorkflow} until its order execution accepts the signal.
+ * {@code receivedAt} is workflow time and survives continue-as-new, so the buffer TTL is not reset.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class RestaurantDecision {
+    private final String orderId;
+    private final boolean accepted;
+    private final long receivedAt;
+
+    @JsonCreator
+    public RestaurantDecision(
+        @JsonProperty("orderId") String orderId,
+        @JsonProperty("accepted") boolean accepted,
+        @JsonProperty("receivedAt") long receivedAt
+    ) {
+        this.orderId = orderId;
+        this.accepted = accepted;
+        this.receivedAt = receivedAt;
+    }
+
+    @JsonProperty("orderId")
+    public String getOrderId() {
+        return orderId;
+    }
+
+    @JsonProperty("accepted")
+    public boolean isAccepted() {
+        return accepted;
+    }
+
+    @JsonProperty("receivedAt")
+    public long getReceivedAt() {
+        return receivedAt;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RestaurantDecision{orderId='%s', accepted=%s, receivedAt=%d}", orderId, accepted, receivedAt);
+    }
+}
@@ -0,0 +1,26 @@
+package eatsworkflow;
+
+import com.uber.cadence.workflow.SignalMethod;
+import com.uber.cadence.workflow.WorkflowMethod;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-restaurant fan-out of restaurant decisions (workflow ID {@code restaurant-router-<restaurantId>}).
+ *
+ * <p>One {@link #signalDecisions} call carries decisions for many orders; the router signals each order's
+ * {@code handle-order-<orderId>} execution from the worker, which checks that the order belongs to the
+ * restaurant. Decisions for executions that do not exist yet are buffered and retried until
+ * {@link RestaurantRouterWorkflowImpl#BUFFER_TTL} has passed; those for closed executions are dropped.
+ */
+public interface RestaurantRouterWorkflow {
+    @WorkflowMethod(
+        executionStartToCloseTimeoutSeconds = 86400, // 1 day per run; runs normally close on idle or continue as new
+        taskStartToCloseTimeoutSeconds = 60 // 1 minute task timeout
+    )
+    String routeDecisions(String restaurantId, List<RestaurantDecision> buffered);
+
+    // orderId -> accepted
+    @SignalMethod
+    void signalDecisions(Map<String, Boolean> decisions);
+}
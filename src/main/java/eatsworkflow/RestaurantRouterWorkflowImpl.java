@@ -0,0 +1,157 @@
+package eatsworkflow;
+
+import com.uber.cadence.activity.LocalActivityOptions;
+import com.uber.cadence.common.RetryOptions;
+import com.uber.cadence.workflow.Async;
+import com.uber.cadence.workflow.Promise;
+import com.uber.cadence.workflow.Workflow;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+
+public class RestaurantRouterWorkflowImpl implements RestaurantRouterWorkflow {
+    private static final Logger logger = Workflow.getLogger(RestaurantRouterWorkflowImpl.class);
+
+    static final Duration RETRY_INTERVAL = Duration.ofSeconds(5);
+    // Longer than the decision timeout, so a decision outlives any order it can still reach
+    static final Duration BUFFER_TTL = Duration.ofMinutes(5);
+    static final Duration IDLE_TIMEOUT = Duration.ofMinutes(10);
+    // Each signal attempt, successful or not, adds a handful of history events; a failed one adds a lookup marker
+    static final int MAX_SIGNALS_PER_RUN = 1000;
+
+    private final OrderLookupActivities lookups = Workflow.newLocalActivityStub(
+        OrderLookupActivities.class,
+        new LocalActivityOptions.Builder()
+            .setScheduleToCloseTimeout(Duration.ofSeconds(10))
+            .setRetryOptions(new RetryOptions.Builder()
+                .setInitialInterval(Duration.ofSeconds(1))
+                .setMaximumAttempts(2)
+                .build())
+            .build());
+
+    // Decisions not yet delivered, keyed by order ID; a newer decision for the same order replaces the older one
+    private final Map<String, RestaurantDecision> incoming = new LinkedHashMap<>();
+    private final Map<String, RestaurantDecision> buffered = new LinkedHashMap<>();
+    private int routed;
+    private int signalsSent;
+
+    @Override
+    public String routeDecisions(String restaurantId, List<RestaurantDecision> carriedOver) {
+        if (carriedOver != null) {
+            for (RestaurantDecision decision : carriedOver) {
+                buffered.put(decision.getOrderId(), decision);
+            }
+        }
+
+        while (signalsSent < MAX_SIGNALS_PER_RUN) {
+            if (incoming.isEmpty()) {
+                Duration wait = buffered.isEmpty() ? IDLE_TIMEOUT : RETRY_INTERVAL;
+                boolean signalled = Workflow.await(wait, () -> !incoming.isEmpty());
+                if (!signalled && buffered.isEmpty()) {
+                    logger.info("Router for restaurant {} idle, completing after {} decisions", restaurantId, routed);
+                    return routed + " decisions routed";
+                }
+            }
+            // Everything still buffered gets another attempt; fresh decisions replace buffered ones for the same order
+            Map<String, RestaurantDecision> attempt = new LinkedHashMap<>(buffered);
+            attempt.putAll(incoming);
+            incoming.clear();
+            buffered.clear();
+            // Only as many signals as the run has left; the rest wait in the buffer, for the next run if need be
+            List<RestaurantDecision> decisions = new ArrayList<>(Math.min(attempt.size(), MAX_SIGNALS_PER_RUN - signalsSent));
+            for (RestaurantDecision decision : attempt.values()) {
+                if (decisions.size() < MAX_SIGNALS_PER_RUN - signalsSent) {
+                    decisions.add(decision);
+                } else {
+                    buffered.put(decision.getOrderId(), decision);
+                }
+            }
+            route(restaurantId, decisions);
+        }
+
+        // Decisions signalled during the last round are not lost: they go to the next run with the buffer
+        List<RestaurantDecision> next = new ArrayList<>(buffered.values());
+        for (RestaurantDecision decision : incoming.values()) {
+            next.add(decision);
+        }
+        logger.info("Router for restaurant {} continuing as new after {} decisions, carrying {}", restaurantId, routed, next.size());
+        Workflow.continueAsNew(restaurantId, next);
+        return routed + " decisions routed";
+    }
+
+    // Signals all order executions concurrently. A failed signal is buffered while its execution has not started
+    // yet, and dropped once the execution has closed or the buffer TTL has passed
+    private void route(String restaurantId, List<RestaurantDecision> decisions) {
+        List<Promise<Void>> sent = new ArrayList<>(decisions.size());
+        for (RestaurantDecision decision : decisions) {
+            HandleEatsOrderWorkflow order = Workflow.newExternalWorkflowStub(
+                HandleEatsOrderWorkflow.class, orderWorkflowId(decision));
+            // The order checks the restaurant, so a decision for another restaurant's order is ignored
+            sent.add(Async.procedure(order::signalRoutedDecision, restaurantId, decision.isAccepted()));
+        }
+        signalsSent += decisions.size();
+
+        // The signal fails the same way for executions that do not exist yet and ones that have closed
+        List<RestaurantDecision> failed = new ArrayList<>();
+        List<Promise<Boolean>> closed = new ArrayList<>();
+        for (int i = 0; i < decisions.size(); i++) {
+            RestaurantDecision decision = decisions.get(i);
+            try {
+                sent.get(i).get();
+                routed++;
+                OrderMetrics.increment(OrderMetrics.DECISION_ROUTED);
+            } catch (Exception e) {
+                if (incoming.containsKey(decision.getOrderId())) {
+                    // Superseded by a decision that arrived while this one was in flight
+                    continue;
+                }
+                logger.info("Signal for order {} failed: {}", decision.getOrderId(), e.getMessage());
+                failed.add(decision);
+                closed.add(Async.function(lookups::isClosed, orderWorkflowId(decision)));
+            }
+        }
+
+        long now = Workflow.currentTimeMillis();
+        for (int i = 0; i < failed.size(); i++) {
+            RestaurantDecision decision = failed.get(i);
+            boolean orderClosed;
+            try {
+                orderClosed = closed.get(i).get();
+            } catch (Exception e) {
+                // Unknown; retried like an execution that is not there yet
+                logger.warn("Could not look up order {}: {}", decision.getOrderId(), e.getMessage());
+                orderClosed = false;
+            }
+            if (incoming.containsKey(decision.getOrderId())) {
+                continue;
+            }
+            if (orderClosed) {
+                logger.warn("Dropping decision for order {}: its execution has closed", decision.getOrderId());
+                OrderMetrics.increment(OrderMetrics.DECISION_DROPPED);
+            } else if (now - decision.getReceivedAt() >= BUFFER_TTL.toMillis()) {
+                logger.warn("Dropping decision for order {} after {}", decision.getOrderId(), BUFFER_TTL);
+                OrderMetrics.increment(OrderMetrics.DECISION_DROPPED);
+            } else {
+                logger.info("Order {} not started yet, buffering its decision", decision.getOrderId());
+                OrderMetrics.increment(OrderMetrics.DECISION_BUFFERED);
+                buffered.put(decision.getOrderId(), decision);
+            }
+        }
+    }
+
+    private static String orderWorkflowId(RestaurantDecision decision) {
+        return "handle-order-" + decision.getOrderId();
+    }
+
+    @Override
+    public void signalDecisions(Map<String, Boolean> decisions) {
+        logger.info("Received {} restaurant decisions", decisions.size());
+        long now = Workflow.currentTimeMillis();
+        for (Map.Entry<String, Boolean> entry : decisions.entrySet()) {
+            incoming.put(entry.getKey(), new RestaurantDecision(entry.getKey(), Boolean.TRUE.equals(entry.getValue()), now));
+        }
+    }
+}
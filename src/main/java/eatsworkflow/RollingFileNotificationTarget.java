@@ -0,0 +1,85 @@
+package eatsworkflow;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends notifications to a file, rolling it to {@code <file>.1} .. {@code <file>.<maxBackups>} once it
+ * reaches {@code maxBytes}. Sizes are counted in UTF-8 bytes as written.
+ */
+public class RollingFileNotificationTarget implements NotificationTarget {
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Path file;
+    private final long maxBytes;
+    private final int maxBackups;
+    private BufferedWriter writer;
+    private long size;
+
+    public RollingFileNotificationTarget(Path file, long maxBytes, int maxBackups) throws IOException {
+        if (maxBytes <= 0 || maxBackups < 0) {
+            throw new IllegalArgumentException("Invalid rolling settings: maxBytes=" + maxBytes + ", maxBackups=" + maxBackups);
+        }
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.maxBackups = maxBackups;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        open();
+    }
+
+    @Override
+    public void write(List<String> notifications) throws IOException {
+        for (String notification : notifications) {
+            if (size >= maxBytes) {
+                roll();
+            }
+            writer.write(notification);
+            writer.write(LINE_SEPARATOR);
+            size += notification.getBytes(StandardCharsets.UTF_8).length + LINE_SEPARATOR.length();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void open() throws IOException {
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        size = Files.size(file);
+    }
+
+    private void roll() throws IOException {
+        writer.close();
+        if (maxBackups == 0) {
+            Files.delete(file);
+        } else {
+            for (int i = maxBackups - 1; i >= 1; i--) {
+                Path source = backup(i);
+                if (Files.exists(source)) {
+                    Files.move(source, backup(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, backup(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private Path backup(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
@@ -0,0 +1,25 @@
+package eatsworkflow;
+
+import java.util.List;
+
+/**
+ * Writes each batch to {@code System.out} with a single call, so stdout's lock is taken once per batch.
+ */
+public class StdoutNotificationTarget implements NotificationTarget {
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private final StringBuilder buffer = new StringBuilder(4096);
+
+    @Override
+    public void write(List<String> notifications) {
+        buffer.setLength(0);
+        for (String notification : notifications) {
+            buffer.append(notification).append(LINE_SEPARATOR);
+        }
+        System.out.print(buffer);
+    }
+
+    @Override
+    public void flush() {
+        System.out.flush();
+    }
+}
@@ -0,0 +1,28 @@
+package eatsworkflow;
+
+import java.time.Duration;
+
+/**
+ * Local stand-in for the real notification service: waits {@code latency}, then prints the usual banner.
+ */
+public class StubDeliveryNotifier implements DeliveryNotifier {
+    private final EatsActivities output;
+    private final long latencyMillis;
+
+    public StubDeliveryNotifier(EatsActivities output, Duration latency) {
+        this.output = output;
+        this.latencyMillis = latency.toMillis();
+    }
+
+    @Override
+    public void notifyOrderDelivered(String orderId) throws InterruptedException {
+        Thread.sleep(latencyMillis);
+        output.notifyOrderDelivered(orderId);
+    }
+
+    @Override
+    public void printDeliveryConfirmation(String orderId) throws InterruptedException {
+        Thread.sleep(latencyMillis);
+        output.printDeliveryConfirmation(orderId);
+    }
+}
@@ -0,0 +1,87 @@
+package eatsworkflow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Task list layout shared by workers and submission tooling. With one shard per workflow type the original
+ * {@code HandleEatsOrderTaskList} and {@code DeliverOrderTaskList} names are used; with N shards they get a
+ * {@code -0} .. {@code -(N-1)} suffix. Orders are routed by restaurant ID, so a restaurant's orders, batch and
+ * router share a shard, and deliveries by order ID.
+ *
+ * <p>Routing uses {@link String#hashCode()}, which is fixed by the language spec, so every process agrees as
+ * long as it has the same shard counts. Changing a count moves keys between shards: drain first.
+ */
+public final class TaskLists {
+    private static final TaskLists SINGLE = new TaskLists(1, 1);
+
+    private final int orderShards;
+    private final int deliveryShards;
+
+    public TaskLists(int orderShards, int deliveryShards) {
+        if (orderShards <= 0 || deliveryShards <= 0) {
+            throw new IllegalArgumentException("Shard counts must be positive: " + orderShards + ", " + deliveryShards);
+        }
+        this.orderShards = orderShards;
+        this.deliveryShards = deliveryShards;
+    }
+
+    public static TaskLists single() {
+        return SINGLE;
+    }
+
+    // ORDER_TASK_LIST_SHARDS and DELIVERY_TASK_LIST_SHARDS, both default 1
+    public static TaskLists fromEnvironment() {
+        return new TaskLists(
+            Integer.parseInt(System.getenv().getOrDefault("ORDER_TASK_LIST_SHARDS", "1")),
+            Integer.parseInt(System.getenv().getOrDefault("DELIVERY_TASK_LIST_SHARDS", "1")));
+    }
+
+    public String orderTaskList(String restaurantId) {
+        return shard(WorkerStarter.MAIN_TASK_LIST, orderShards, restaurantId);
+    }
+
+    public String deliveryTaskList(String orderId) {
+        return shard(WorkerStarter.DELIVERY_TASK_LIST, deliveryShards, orderId);
+    }
+
+    public List<String> orderTaskLists() {
+        return all(WorkerStarter.MAIN_TASK_LIST, orderShards);
+    }
+
+    public List<String> deliveryTaskLists() {
+        return all(WorkerStarter.DELIVERY_TASK_LIST, deliveryShards);
+    }
+
+    public int getOrderShards() {
+        return orderShards;
+    }
+
+    public int getDeliveryShards() {
+        return deliveryShards;
+    }
+
+    private static String shard(String base, int shards, String key) {
+        if (shards == 1) {
+            return base;
+        }
+        return base + "-" + Math.floorMod(key == null ? 0 : key.hashCode(), shards);
+    }
+
+    private static List<String> all(String base, int shards) {
+        if (shards == 1) {
+            return Collections.singletonList(base);
+        }
+        List<String> taskLists = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            taskLists.add(base + "-" + i);
+        }
+        return taskLists;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskLists{orderShards=" + orderShards + ", deliveryShards=" + deliveryShards + "}";
+    }
+}
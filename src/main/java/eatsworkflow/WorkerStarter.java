@@ -2,19 +2,32 @@ package eatsworkflow;
 
 import com.uber.cadence.client.WorkflowClient;
 import com.uber.cadence.client.WorkflowClientOptions;
+import com.uber.cadence.converter.DataConverter;
 import com.uber.cadence.serviceclient.WorkflowServiceTChannel;
 import com.uber.cadence.serviceclient.ClientOptions;
 import com.uber.cadence.worker.Worker;
 import com.uber.cadence.worker.WorkerFactory;
 import com.uber.cadence.worker.WorkerOptions;
+import com.uber.m3.tally.Scope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class WorkerStarter {
     private static final Logger logger = LoggerFactory.getLogger(WorkerStarter.class);
-    private static final String DOMAIN = "samples-domain";
-    private static final String MAIN_TASK_LIST = "HandleEatsOrderTaskList";
-    private static final String DELIVERY_TASK_LIST = "DeliverOrderTaskList";
+    static final String DOMAIN = System.getenv().getOrDefault("CADENCE_DOMAIN", "samples-domain");
+    static final String MAIN_TASK_LIST = "HandleEatsOrderTaskList";
+    static final String DELIVERY_TASK_LIST = "DeliverOrderTaskList";
+
+    private static final AtomicBoolean firstTaskRecorded = new AtomicBoolean();
+    private static volatile long workersStartedAtMillis;
     
     // Get Cadence address from environment variable with fallback
     private static String[] getCadenceHostAndPort() {
@@ -39,72 +52,296 @@ public class WorkerStarter {
         return parts;
     }
 
+    // DATA_CONVERTER selects the payload encoding: json (default), compact-read (writes JSON, reads both)
+    // or compact (Smile, deflated from DATA_CONVERTER_COMPRESSION_THRESHOLD bytes, -1 disables compression).
+    // CLAIM_CHECK_DIR additionally moves encoded payloads from CLAIM_CHECK_THRESHOLD bytes into that directory,
+    // which every worker and client has to share; CLAIM_CHECK_CACHE_BYTES bounds the in-memory read cache and
+    // CLAIM_CHECK_RETENTION_HOURS (0 keeps blobs forever) deletes blobs older than that every hour
+    static DataConverter newDataConverter() {
+        DataConverter converter = newPayloadConverter();
+        String claimCheckDir = System.getenv("CLAIM_CHECK_DIR");
+        if (claimCheckDir == null || claimCheckDir.isEmpty()) {
+            return converter;
+        }
+        int threshold = Integer.parseInt(System.getenv().getOrDefault("CLAIM_CHECK_THRESHOLD", "65536"));
+        long cacheBytes = Long.parseLong(System.getenv().getOrDefault("CLAIM_CHECK_CACHE_BYTES", "67108864"));
+        long retentionHours = Long.parseLong(System.getenv().getOrDefault("CLAIM_CHECK_RETENTION_HOURS", "0"));
+        try {
+            FileSystemPayloadStore store = new FileSystemPayloadStore(Paths.get(claimCheckDir), cacheBytes);
+            logger.info("Claim-checking payloads from {} bytes in {}", threshold, claimCheckDir);
+            if (retentionHours > 0) {
+                store.scheduleCleanup(Duration.ofHours(retentionHours), Duration.ofHours(1));
+                logger.info("Deleting claim-checked payloads older than {} hours", retentionHours);
+            }
+            return new ClaimCheckDataConverter(converter, store, threshold);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open claim check store " + claimCheckDir, e);
+        }
+    }
+
+    private static DataConverter newPayloadConverter() {
+        String mode = System.getenv().getOrDefault("DATA_CONVERTER", "json");
+        int threshold = Integer.parseInt(System.getenv().getOrDefault("DATA_CONVERTER_COMPRESSION_THRESHOLD", "1024"));
+        switch (mode) {
+            case "json":
+                return new JacksonDataConverter();
+            case "compact-read":
+                return new CompactDataConverter(false, threshold);
+            case "compact":
+                return new CompactDataConverter(true, threshold);
+            default:
+                logger.warn("Unknown DATA_CONVERTER '{}', using json", mode);
+                return new JacksonDataConverter();
+        }
+    }
+
+    // Shared by the worker and the ingestion tooling so both talk to the same domain with the same converter
+    static WorkflowClient newWorkflowClient() {
+        return newWorkflowClient(null);
+    }
+
+    static WorkflowClient newWorkflowClient(Scope metricsScope) {
+        return newWorkflowClient(metricsScope, newDataConverter());
+    }
+
+    static WorkflowClient newWorkflowClient(Scope metricsScope, DataConverter dataConverter) {
+        String[] hostAndPort = getCadenceHostAndPort();
+        String host = hostAndPort[0];
+        int port = Integer.parseInt(hostAndPort[1]);
+
+        logger.info("Connecting to Cadence at host: {} and port: {}", host, port);
+
+        logger.info("Using data converter: {}", dataConverter.getClass().getSimpleName());
+
+        // Create workflow service client with explicit host and port
+        ClientOptions clientOptions = ClientOptions.newBuilder()
+            .setHost(host)
+            .setPort(port)
+            .build();
+
+        WorkflowServiceTChannel service = new WorkflowServiceTChannel(clientOptions);
+        WorkflowClientOptions.Builder options = WorkflowClientOptions.newBuilder()
+            .setDomain(DOMAIN)
+            .setDataConverter(dataConverter);
+        if (metricsScope != null) {
+            // Cadence worker/client metrics and Workflow.getMetricsScope() both report into this scope
+            options.setMetricsScope(metricsScope);
+        }
+        WorkflowClient workflowClient = WorkflowClient.newInstance(service, options.build());
+
+        logger.info("Created workflow client for domain: {}", DOMAIN);
+        return workflowClient;
+    }
+
+    // In adaptive mode the AdaptiveConcurrencyController polls activity tasks, so the main worker does not.
+    // localActivityConcurrency 0 keeps the client's default local activity slots
+    private static WorkerOptions newWorkerOptions(int maxConcurrency, boolean adaptive, int localActivityConcurrency) {
+        WorkerOptions.Builder options = WorkerOptions.newBuilder()
+            .setMaxConcurrentActivityExecutionSize(maxConcurrency)
+            .setMaxConcurrentWorkflowExecutionSize(maxConcurrency)
+            .setDisableActivityWorker(adaptive);
+        if (localActivityConcurrency > 0) {
+            options.setMaxConcurrentLocalActivityExecutionSize(localActivityConcurrency);
+        }
+        return options.build();
+    }
+
+    // NOTIFICATION_SINK=stdout (default, written on the activity thread), async-stdout or async-file. The async
+    // sinks queue up to NOTIFICATION_QUEUE_CAPACITY banners and apply NOTIFICATION_OVERFLOW (block, drop-newest,
+    // drop-oldest) when full; async-file rolls NOTIFICATION_FILE at NOTIFICATION_FILE_MAX_BYTES, keeping 5 backups
+    static NotificationSink newNotificationSink(Scope metricsScope) throws IOException {
+        String mode = System.getenv().getOrDefault("NOTIFICATION_SINK", "stdout");
+        NotificationTarget target;
+        switch (mode) {
+            case "stdout":
+                return NotificationSink.stdout();
+            case "async-stdout":
+                target = new StdoutNotificationTarget();
+                break;
+            case "async-file":
+                target = new RollingFileNotificationTarget(
+                    Paths.get(System.getenv().getOrDefault("NOTIFICATION_FILE", "logs/notifications.log")),
+                    Long.parseLong(System.getenv().getOrDefault("NOTIFICATION_FILE_MAX_BYTES", "10485760")),
+                    5);
+                break;
+            default:
+                logger.warn("Unknown NOTIFICATION_SINK '{}', using stdout", mode);
+                return NotificationSink.stdout();
+        }
+        int capacity = Integer.parseInt(System.getenv().getOrDefault("NOTIFICATION_QUEUE_CAPACITY", "8192"));
+        AsyncNotificationSink.OverflowPolicy overflow = AsyncNotificationSink.OverflowPolicy.valueOf(
+            System.getenv().getOrDefault("NOTIFICATION_OVERFLOW", "block").toUpperCase().replace('-', '_'));
+        logger.info("Using {} notification sink with capacity {} and overflow policy {}", mode, capacity, overflow);
+        return new AsyncNotificationSink(target, capacity, 256, overflow, metricsScope);
+    }
+
+    // NOTIFICATION_COMPLETION=async completes the delivery notifications through the activity completion
+    // client instead of holding an activity slot for the call; at most NOTIFICATION_MAX_IN_FLIGHT are outstanding.
+    // Delivery notifications go to a stub notifier that takes NOTIFIER_LATENCY_MILLIS per call
+    static EatsActivities newActivities(WorkflowClient workflowClient, WorkflowSettings settings,
+                                        NotificationSink notificationSink) {
+        EatsActivityImpl activities = new EatsActivityImpl(notificationSink);
+        if (!"async".equals(System.getenv().getOrDefault("NOTIFICATION_COMPLETION", "sync"))) {
+            return activities;
+        }
+        if (settings.getActivityMode() == WorkflowSettings.ActivityMode.LOCAL) {
+            logger.warn("NOTIFICATION_COMPLETION=async needs remote activities, completing notifications synchronously");
+            return activities;
+        }
+        Duration latency = Duration.ofMillis(Long.parseLong(System.getenv().getOrDefault("NOTIFIER_LATENCY_MILLIS", "0")));
+        int maxInFlight = Integer.parseInt(System.getenv().getOrDefault("NOTIFICATION_MAX_IN_FLIGHT", "10000"));
+        return new AsyncCompletionEatsActivities(activities, new StubDeliveryNotifier(activities, latency),
+            workflowClient.newActivityCompletionClient(), maxInFlight, 200);
+    }
+
+    private static void registerActivities(Worker worker, String taskList, boolean adaptive,
+                                           int minConcurrency, int maxConcurrency, WorkflowClient workflowClient,
+                                           Scope metricsScope, EatsActivities activities, Object... otherActivities) {
+        // All in one call: each registration replaces the previous one
+        Object[] implementations = Arrays.copyOf(otherActivities, otherActivities.length + 1);
+        if (!adaptive) {
+            implementations[otherActivities.length] = activities;
+            worker.registerActivitiesImplementations(implementations);
+            return;
+        }
+        // The main worker only runs them as local activities; the controller polls activity tasks with a worker
+        // of its own, sized to its current limit
+        AdaptiveConcurrencyController controller =
+            new AdaptiveConcurrencyController(taskList, minConcurrency, maxConcurrency);
+        implementations[otherActivities.length] = new AdaptiveEatsActivities(activities, controller);
+        worker.registerActivitiesImplementations(implementations);
+        controller.start(workflowClient, implementations, metricsScope);
+    }
+
+    // Reported once, on the first workflow instantiated after the workers started
+    private static void recordFirstTask(Scope metricsScope) {
+        if (workersStartedAtMillis == 0 || !firstTaskRecorded.compareAndSet(false, true)) {
+            return;
+        }
+        long millis = System.currentTimeMillis() - workersStartedAtMillis;
+        logger.info("First task {} ms after workers started", millis);
+        if (metricsScope != null) {
+            metricsScope.gauge("eats-worker-time-to-first-task-millis").update(millis);
+        }
+    }
+
     public static void main(String[] args) {
         try {
-            String[] hostAndPort = getCadenceHostAndPort();
-            String host = hostAndPort[0];
-            int port = Integer.parseInt(hostAndPort[1]);
-            
-            logger.info("Starting worker with host: {} and port: {}", host, port);
-            
-            // Configure ObjectMapper for lenient deserialization
-            JacksonDataConverter dataConverter = new JacksonDataConverter();
-            
-            // Create workflow service client with explicit host and port
-            ClientOptions clientOptions = ClientOptions.newBuilder()
-                .setHost(host)
-                .setPort(port)
-                .build();
-            
-            WorkflowServiceTChannel service = new WorkflowServiceTChannel(clientOptions);
-            WorkflowClient workflowClient = WorkflowClient.newInstance(
-                service,
-                WorkflowClientOptions.newBuilder()
-                    .setDomain(DOMAIN)
-                    .setDataConverter(dataConverter)
-                    .build()
-            );
+            WorkflowSettings settings = WorkflowSettings.fromEnvironment();
+            logger.info("Using {}", settings);
+
+            // Warm-up runs before any Cadence connection; --warmup-only stops afterwards, e.g. to record a CDS archive
+            boolean warmupOnly = Arrays.asList(args).contains("--warmup-only");
+            // Lenient Jackson-based converter, optionally with the compact binary encoding; the warmed-up
+            // instance is the one the client uses, so its cached readers carry over
+            DataConverter dataConverter = newDataConverter();
+            long warmupMillis = WorkerWarmup.run(
+                warmupOnly ? WorkerWarmup.Level.FULL : WorkerWarmup.levelFromEnvironment(), dataConverter, settings);
+            if (warmupOnly) {
+                System.exit(0);
+            }
+
+            // Metrics are scraped from http://localhost:METRICS_PORT/metrics, METRICS_PORT=0 disables them
+            // along with the /ready probe
+            int metricsPort = Integer.parseInt(System.getenv().getOrDefault("METRICS_PORT", "9464"));
+            Scope metricsScope = null;
+            MetricsServer metricsServer = null;
+            if (metricsPort > 0) {
+                metricsServer = new MetricsServer(metricsPort);
+                metricsServer.start();
+                metricsScope = metricsServer.getScope();
+            }
+
+            WorkflowClient workflowClient = newWorkflowClient(metricsScope, dataConverter);
 
-            logger.info("Created workflow client for domain: {}", DOMAIN);
+            // Shared by both task lists; closed on shutdown so pending and queued notifications are written out
+            NotificationSink notificationSink = newNotificationSink(metricsScope);
+            EatsActivities activities = newActivities(workflowClient, settings, notificationSink);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                if (activities instanceof AutoCloseable) {
+                    try {
+                        ((AutoCloseable) activities).close();
+                    } catch (Exception e) {
+                        logger.warn("Error closing activities", e);
+                    }
+                }
+                notificationSink.close();
+            }, "notification-shutdown"));
 
             // Create worker factory
             WorkerFactory factory = WorkerFactory.newInstance(workflowClient);
 
-            // Create main worker with increased concurrency
-            Worker mainWorker = factory.newWorker(
-                MAIN_TASK_LIST,
-                WorkerOptions.newBuilder()
-                    .setMaxConcurrentActivityExecutionSize(10)
-                    .setMaxConcurrentWorkflowExecutionSize(10)
-                    .build()
-            );
+            // WORKER_CONCURRENCY_MODE=adaptive lets a controller pick the effective concurrency per task list
+            // between WORKER_MIN_CONCURRENCY and WORKER_MAX_CONCURRENCY instead of the fixed 10
+            boolean adaptive = "adaptive".equals(System.getenv().getOrDefault("WORKER_CONCURRENCY_MODE", "fixed"));
+            int minConcurrency = Integer.parseInt(System.getenv().getOrDefault("WORKER_MIN_CONCURRENCY", "2"));
+            int maxConcurrency = adaptive
+                ? Integer.parseInt(System.getenv().getOrDefault("WORKER_MAX_CONCURRENCY", "50"))
+                : 10;
+            // Local activity slots are not adapted; unset keeps the Cadence client default
+            int localActivityConcurrency = Integer.parseInt(
+                System.getenv().getOrDefault("WORKER_LOCAL_ACTIVITY_CONCURRENCY", "0"));
 
-            logger.info("Created main worker for task list: {}", MAIN_TASK_LIST);
+            // WORKER_ROLES picks what this process polls: "order" (orders, batches, routers), "delivery" or both,
+            // so each can be scaled on its own. Every role polls all shards of its task lists
+            List<String> roles = Arrays.asList(System.getenv().getOrDefault("WORKER_ROLES", "order,delivery").trim().split("\\s*,\\s*"));
+            boolean orderRole = roles.contains("order");
+            boolean deliveryRole = roles.contains("delivery");
+            if (!orderRole && !deliveryRole) {
+                throw new IllegalArgumentException("WORKER_ROLES must contain order and/or delivery: " + roles);
+            }
 
-            // Register main workflow and activities
-            mainWorker.registerWorkflowImplementationTypes(HandleEatsOrderWorkflowImpl.class);
-            mainWorker.registerActivitiesImplementations(new EatsActivityImpl());
+            final Scope scope = metricsScope;
+            if (orderRole) {
+                for (String taskList : settings.getTaskLists().orderTaskLists()) {
+                    Worker mainWorker = factory.newWorker(taskList, newWorkerOptions(maxConcurrency, adaptive, localActivityConcurrency));
+                    logger.info("Created main worker for task list: {}", taskList);
 
-            // Create delivery worker with increased concurrency
-            Worker deliveryWorker = factory.newWorker(
-                DELIVERY_TASK_LIST,
-                WorkerOptions.newBuilder()
-                    .setMaxConcurrentActivityExecutionSize(10)
-                    .setMaxConcurrentWorkflowExecutionSize(10)
-                    .build()
-            );
+                    mainWorker.addWorkflowImplementationFactory(HandleEatsOrderWorkflow.class, () -> {
+                        recordFirstTask(scope);
+                        return new HandleEatsOrderWorkflowImpl(settings);
+                    });
+                    mainWorker.addWorkflowImplementationFactory(RestaurantBatchWorkflow.class, () -> {
+                        recordFirstTask(scope);
+                        return new RestaurantBatchWorkflowImpl(settings);
+                    });
+                    mainWorker.addWorkflowImplementationFactory(RestaurantRouterWorkflow.class, () -> {
+                        recordFirstTask(scope);
+                        return new RestaurantRouterWorkflowImpl();
+                    });
+                    // The lookups run as local activities of the router
+                    registerActivities(mainWorker, taskList, adaptive, minConcurrency, maxConcurrency, workflowClient,
+                        metricsScope, activities, new OrderLookupActivityImpl(workflowClient.getService()));
+                }
+            }
 
-            logger.info("Created delivery worker for task list: {}", DELIVERY_TASK_LIST);
+            if (deliveryRole) {
+                for (String taskList : settings.getTaskLists().deliveryTaskLists()) {
+                    Worker deliveryWorker = factory.newWorker(taskList, newWorkerOptions(maxConcurrency, adaptive, localActivityConcurrency));
+                    logger.info("Created delivery worker for task list: {}", taskList);
 
-            // Register delivery workflow and activities
-            deliveryWorker.registerWorkflowImplementationTypes(DeliverOrderWorkflowImpl.class);
-            deliveryWorker.registerActivitiesImplementations(new EatsActivityImpl());
+                    deliveryWorker.addWorkflowImplementationFactory(DeliverOrderWorkflow.class, () -> {
+                        recordFirstTask(scope);
+                        return new DeliverOrderWorkflowImpl(settings);
+                    });
+                    registerActivities(deliveryWorker, taskList, adaptive, minConcurrency, maxConcurrency, workflowClient,
+                        metricsScope, activities);
+                }
+            }
 
             // Start all workers
             logger.info("Starting all workers via factory.start()");
+            workersStartedAtMillis = System.currentTimeMillis();
             factory.start();
 
-            logger.info("Workers started successfully. Waiting for tasks...");
+            long startupMillis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+            logger.info("Workers started successfully {} ms after JVM start ({} ms warm-up). Waiting for tasks...",
+                startupMillis, warmupMillis);
+            if (metricsServer != null) {
+                metricsScope.gauge("eats-worker-startup-millis").update(startupMillis);
+                metricsScope.gauge("eats-worker-warmup-millis").update(warmupMillis);
+                metricsServer.setReady(true);
+            }
             
             // Keep the worker running
             Thread.currentThread().join();
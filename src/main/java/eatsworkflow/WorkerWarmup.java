@@ -0,0 +1,188 @@
+package eatsworkflow;
+
+import com.uber.cadence.client.WorkflowClient;
+import com.uber.cadence.client.WorkflowClientOptions;
+import com.uber.cadence.client.WorkflowStub;
+import com.uber.cadence.converter.DataConverter;
+import com.uber.cadence.testing.TestEnvironmentOptions;
+import com.uber.cadence.testing.TestWorkflowEnvironment;
+import com.uber.cadence.worker.Worker;
+import com.uber.cadence.workflow.QueryMethod;
+import com.uber.cadence.workflow.SignalMethod;
+import com.uber.cadence.workflow.WorkflowMethod;
+import eatsworkflow.RestaurantBatchState.PendingOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Work done before the worker starts polling, so the first real tasks do not pay for class loading,
+ * Jackson introspection and cold code paths.
+ *
+ * <ul>
+ *   <li>{@link Level#SERIALIZATION}: round-trips sample arguments and results of every workflow, signal and
+ *       query method through the worker's {@link DataConverter}, which resolves and caches the typed readers</li>
+ *   <li>{@link Level#FULL}: additionally runs one decided and one auto-accepted order end to end on the
+ *       in-process test service, with the worker's {@link WorkflowSettings} and discarded notifications</li>
+ * </ul>
+ * Failures are logged and never stop the worker from starting.
+ */
+public final class WorkerWarmup {
+    private static final Logger logger = LoggerFactory.getLogger(WorkerWarmup.class);
+    private static final Class<?>[] WORKFLOW_INTERFACES = {
+        HandleEatsOrderWorkflow.class, DeliverOrderWorkflow.class, RestaurantBatchWorkflow.class, RestaurantRouterWorkflow.class
+    };
+    private static final long ORDER_TIMEOUT_SECONDS = 30;
+
+    public enum Level {
+        OFF,
+        SERIALIZATION,
+        FULL
+    }
+
+    private WorkerWarmup() {
+    }
+
+    // WARMUP=full (default), serialization or off
+    static Level levelFromEnvironment() {
+        return Level.valueOf(System.getenv().getOrDefault("WARMUP", "full").toUpperCase());
+    }
+
+    /**
+     * @return time spent warming up, in milliseconds
+     */
+    static long run(Level level, DataConverter converter, WorkflowSettings settings) {
+        if (level == Level.OFF) {
+            return 0;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            int methods = warmSerialization(converter);
+            logger.info("Warmed up data converter for {} workflow, signal and query methods", methods);
+            if (level == Level.FULL) {
+                runOrders(converter, settings);
+            }
+        } catch (Exception e) {
+            logger.warn("Warm-up failed, continuing without it: {}", e.getMessage(), e);
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        logger.info("{} warm-up finished in {} ms", level, millis);
+        return millis;
+    }
+
+    private static int warmSerialization(DataConverter converter) throws NoSuchFieldException {
+        Map<Type, Object> samples = samples();
+        int warmed = 0;
+        for (Class<?> workflowInterface : WORKFLOW_INTERFACES) {
+            for (Method method : workflowInterface.getMethods()) {
+                if (!method.isAnnotationPresent(WorkflowMethod.class) && !method.isAnnotationPresent(SignalMethod.class)
+                    && !method.isAnnotationPresent(QueryMethod.class)) {
+                    continue;
+                }
+                Type[] types = method.getGenericParameterTypes();
+                Object[] args = new Object[types.length];
+                for (int i = 0; i < types.length; i++) {
+                    args[i] = samples.get(types[i]);
+                    if (args[i] == null) {
+                        logger.debug("No warm-up sample for {} in {}", types[i], method);
+                    }
+                }
+                converter.fromDataArray(converter.toData(args), types);
+                if (method.getReturnType() != void.class) {
+                    Object result = samples.get(method.getGenericReturnType());
+                    converter.fromData(converter.toData(result), method.getReturnType(), method.getGenericReturnType());
+                }
+                warmed++;
+            }
+        }
+        return warmed;
+    }
+
+    // Keyed by the generic parameter types the workflow interfaces declare
+    private static Map<Type, Object> samples() throws NoSuchFieldException {
+        Order order = new Order("warm-up", Arrays.asList("pizza", "fries", "warm-up special"));
+        Map<Type, Object> samples = new HashMap<>();
+        samples.put(String.class, "warm-up");
+        samples.put(boolean.class, Boolean.TRUE);
+        samples.put(Boolean.class, Boolean.TRUE);
+        samples.put(Order.class, order);
+        samples.put(OrderStatus.class, OrderStatus.DELIVERED);
+        samples.put(OrderTimingPolicy.class, OrderTimingPolicy.defaults());
+        samples.put(DeliveryRequest.class, new DeliveryRequest(true, order.getContent(), 0L, 0L));
+        samples.put(RestaurantBatchState.class, new RestaurantBatchState(
+            Collections.singletonList(new PendingOrder("warm-up", order, 0)), Collections.singletonMap("warm-up", Boolean.TRUE)));
+        samples.put(genericType("decisionList"), Collections.singletonList(new RestaurantDecision("warm-up", true, 0)));
+        samples.put(genericType("decisionMap"), Collections.singletonMap("warm-up", Boolean.TRUE));
+        return samples;
+    }
+
+    // Generic types compare equal across reflection sources, so these match the interface parameters
+    @SuppressWarnings("unused")
+    private static List<RestaurantDecision> decisionList;
+    @SuppressWarnings("unused")
+    private static Map<String, Boolean> decisionMap;
+
+    private static ParameterizedType genericType(String field) throws NoSuchFieldException {
+        return (ParameterizedType) WorkerWarmup.class.getDeclaredField(field).getGenericType();
+    }
+
+    private static void runOrders(DataConverter converter, WorkflowSettings settings) throws Exception {
+        TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance(
+            new TestEnvironmentOptions.Builder()
+                .setWorkflowClientOptions(WorkflowClientOptions.newBuilder()
+                    .setDomain(WorkerStarter.DOMAIN)
+                    .setDataConverter(converter)
+                    .build())
+                .build());
+        try {
+            EatsActivities activities = new EatsActivityImpl(notification -> { });
+            for (String taskList : settings.getTaskLists().orderTaskLists()) {
+                Worker worker = environment.newWorker(taskList);
+                worker.addWorkflowImplementationFactory(
+                    HandleEatsOrderWorkflow.class, () -> new HandleEatsOrderWorkflowImpl(settings));
+                worker.registerActivitiesImplementations(activities);
+            }
+            for (String taskList : settings.getTaskLists().deliveryTaskLists()) {
+                Worker worker = environment.newWorker(taskList);
+                worker.addWorkflowImplementationFactory(
+                    DeliverOrderWorkflow.class, () -> new DeliverOrderWorkflowImpl(settings));
+                worker.registerActivitiesImplementations(activities);
+            }
+            environment.start();
+
+            WorkflowClient client = environment.newWorkflowClient();
+            OrderClient orderClient = new OrderClient(client, 1, settings.getTaskLists());
+            try {
+                OrderTimingPolicy autoAccept = new OrderTimingPolicy.Builder()
+                    .setAutoAccept(true)
+                    .setPreparationDelay(Duration.ZERO)
+                    .setDeliveryDelay(Duration.ZERO)
+                    .build();
+                List<OrderRequest> requests = Arrays.asList(
+                    new OrderRequest("warm-up", new Order("warm-up-decided", Arrays.asList("pizza")), "warm-up", true),
+                    new OrderRequest("warm-up", new Order("warm-up-auto", Arrays.asList("soda")), "warm-up", true, autoAccept));
+                for (OrderRequest request : requests) {
+                    orderClient.submit(request);
+                    WorkflowStub stub = client.newUntypedWorkflowStub(request.getWorkflowId(), Optional.empty(), Optional.empty());
+                    String result = stub.getResultAsync(String.class).get(ORDER_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                    OrderStatus status = stub.query(OrderStatus.QUERY, OrderStatus.class);
+                    logger.debug("Warm-up order {}: {} ({})", request.getOrder().getId(), result, status);
+                }
+            } finally {
+                orderClient.close();
+            }
+        } finally {
+            environment.close();
+        }
+    }
+}
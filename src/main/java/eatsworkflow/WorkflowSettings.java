@@ -0,0 +1,100 @@
+package eatsworkflow;
+
+/**
+ * Worker-wide choices about how the workflow implementations execute, handed to them through
+ * implementation factories when the worker starts.
+ *
+ * <p>These change the commands a workflow emits, so switching a setting on a task list that still has open
+ * executions fails their replay. Drain the task list (or start new executions on a fresh one) before
+ * changing them.
+ */
+public final class WorkflowSettings {
+    /** How the lightweight {@link EatsActivities} notifications are invoked. */
+    public enum ActivityMode {
+        /** Regular activity tasks dispatched through the task list. */
+        REMOTE,
+        /** Local activities executed by the worker that runs the decision task. */
+        LOCAL
+    }
+
+    /** How an accepted order's delivery runs relative to the order workflow. */
+    public enum DeliveryStrategy {
+        /** Delivery steps run inside the order workflow; no child workflow. */
+        INLINE,
+        /** {@link DeliverOrderWorkflow} child, awaited by the order workflow. */
+        CHILD,
+        /**
+         * Abandoned child: the order workflow ends at {@link OrderStatus#HANDED_OFF} once the child has started, and
+         * the child records its own outcome and metrics, readable through its {@link OrderStatus#QUERY} query.
+         */
+        DETACHED
+    }
+
+    private final ActivityMode activityMode;
+    private final DeliveryStrategy deliveryStrategy;
+    private final TaskLists taskLists;
+
+    private WorkflowSettings(Builder builder) {
+        this.activityMode = builder.activityMode;
+        this.deliveryStrategy = builder.deliveryStrategy;
+        this.taskLists = builder.taskLists;
+    }
+
+    public static WorkflowSettings defaults() {
+        return new Builder().build();
+    }
+
+    // ACTIVITY_MODE=remote (default) or local, DELIVERY_STRATEGY=child (default), inline or detached,
+    // plus the task list shard counts read by TaskLists.fromEnvironment()
+    public static WorkflowSettings fromEnvironment() {
+        return new Builder()
+            .setTaskLists(TaskLists.fromEnvironment())
+            .setActivityMode(ActivityMode.valueOf(System.getenv().getOrDefault("ACTIVITY_MODE", "remote").toUpperCase()))
+            .setDeliveryStrategy(DeliveryStrategy.valueOf(System.getenv().getOrDefault("DELIVERY_STRATEGY", "child").toUpperCase()))
+            .build();
+    }
+
+    public ActivityMode getActivityMode() {
+        return activityMode;
+    }
+
+    public DeliveryStrategy getDeliveryStrategy() {
+        return deliveryStrategy;
+    }
+
+    /** Where delivery children are started; also the layout the worker polls. */
+    public TaskLists getTaskLists() {
+        return taskLists;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkflowSettings{activityMode=" + activityMode + ", deliveryStrategy=" + deliveryStrategy
+            + ", taskLists=" + taskLists + "}";
+    }
+
+    public static class Builder {
+        private ActivityMode activityMode = ActivityMode.REMOTE;
+        private DeliveryStrategy deliveryStrategy = DeliveryStrategy.CHILD;
+        private TaskLists taskLists = TaskLists.single();
+
+        public Builder setActivityMode(ActivityMode activityMode) {
+            this.activityMode = activityMode;
+            return this;
+        }
+
+        public Builder setDeliveryStrategy(DeliveryStrategy deliveryStrategy) {
+            this.deliveryStrategy = deliveryStrategy;
+            return this;
+        }
+
+        public Builder setTaskLists(TaskLists taskLists) {
+            this.taskLists = taskLists;
+            return this;
+        }
+
+        public WorkflowSettings build() {
+            return new WorkflowSettings(this);
+        }
+    }
+}
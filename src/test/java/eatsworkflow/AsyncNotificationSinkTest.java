@@ -0,0 +1,159 @@
+package eatsworkflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class AsyncNotificationSinkTest {
+    private final RecordingTarget target = new RecordingTarget();
+
+    @Test
+    public void idleWriterWakesUpOnPublish() throws Exception {
+        target.gate.countDown();
+        AsyncNotificationSink sink = newSink(16, AsyncNotificationSink.OverflowPolicy.BLOCK);
+        // Let the writer find the queue empty and park
+        Thread.sleep(200);
+
+        sink.publish("order-1");
+
+        // Well below the writer's idle park, so only the publisher's wake-up can deliver it in time
+        assertTrue(target.flushed.await(500, TimeUnit.MILLISECONDS));
+        assertEquals(Collections.singletonList("order-1"), target.written());
+        sink.close();
+    }
+
+    @Test
+    public void blockWaitsForRoomWithoutLosingNotifications() throws Exception {
+        AsyncNotificationSink sink = blockedSink(AsyncNotificationSink.OverflowPolicy.BLOCK);
+        sink.publish("b");
+        sink.publish("c");
+        Thread publisher = new Thread(() -> sink.publish("d"));
+        publisher.start();
+
+        publisher.join(200);
+        assertTrue("publisher should wait while the queue is full", publisher.isAlive());
+
+        target.gate.countDown();
+        publisher.join(5000);
+        assertFalse(publisher.isAlive());
+        sink.close();
+        assertEquals(Arrays.asList("a", "b", "c", "d"), target.written());
+        assertEquals(0, sink.getDropped());
+    }
+
+    @Test
+    public void dropNewestDiscardsTheNotificationBeingPublished() throws Exception {
+        AsyncNotificationSink sink = blockedSink(AsyncNotificationSink.OverflowPolicy.DROP_NEWEST);
+        sink.publish("b");
+        sink.publish("c");
+        sink.publish("d");
+
+        assertEquals(1, sink.getDropped());
+        target.gate.countDown();
+        sink.close();
+        assertEquals(Arrays.asList("a", "b", "c"), target.written());
+    }
+
+    @Test
+    public void dropOldestDiscardsTheOldestQueuedNotification() throws Exception {
+        AsyncNotificationSink sink = blockedSink(AsyncNotificationSink.OverflowPolicy.DROP_OLDEST);
+        sink.publish("b");
+        sink.publish("c");
+        sink.publish("d");
+
+        assertEquals(1, sink.getDropped());
+        target.gate.countDown();
+        sink.close();
+        assertEquals(Arrays.asList("a", "c", "d"), target.written());
+    }
+
+    @Test
+    public void closeWritesQueuedNotificationsAndClosesTheTarget() throws Exception {
+        AsyncNotificationSink sink = blockedSink(AsyncNotificationSink.OverflowPolicy.BLOCK);
+        sink.publish("b");
+        target.gate.countDown();
+
+        sink.close();
+        sink.publish("late");
+
+        assertEquals(Arrays.asList("a", "b"), target.written());
+        assertEquals(2, sink.getWritten());
+        assertEquals(1, sink.getDropped());
+        assertTrue(target.closed);
+    }
+
+    @Test
+    public void failedWritesCountAsDropped() throws Exception {
+        target.gate.countDown();
+        target.fail = true;
+        AsyncNotificationSink sink = newSink(16, AsyncNotificationSink.OverflowPolicy.BLOCK);
+
+        sink.publish("order-1");
+        sink.close();
+
+        assertEquals(1, sink.getDropped());
+        assertEquals(0, sink.getWritten());
+    }
+
+    // Capacity two, with "a" held by the writer inside a blocked write
+    private AsyncNotificationSink blockedSink(AsyncNotificationSink.OverflowPolicy policy) throws InterruptedException {
+        AsyncNotificationSink sink = newSink(2, policy);
+        sink.publish("a");
+        assertTrue(target.writing.await(5, TimeUnit.SECONDS));
+        return sink;
+    }
+
+    private AsyncNotificationSink newSink(int capacity, AsyncNotificationSink.OverflowPolicy policy) {
+        return new AsyncNotificationSink(target, capacity, 1, policy, null);
+    }
+
+    private static final class RecordingTarget implements NotificationTarget {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final CountDownLatch flushed = new CountDownLatch(1);
+        private final List<String> written = new ArrayList<>();
+        volatile boolean fail;
+        volatile boolean closed;
+
+        @Override
+        public void write(List<String> notifications) throws IOException {
+            writing.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (fail) {
+                throw new IOException("disk full");
+            }
+            synchronized (written) {
+                written.addAll(notifications);
+            }
+        }
+
+        @Override
+        public void flush() {
+            flushed.countDown();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        List<String> written() {
+            synchronized (written) {
+                return new ArrayList<>(written);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package eatsworkflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import com.uber.cadence.converter.DataConverterException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class ClaimCheckDataConverterTest {
+    private static final int THRESHOLD = 256;
+
+    private final InMemoryStore store = new InMemoryStore();
+    private final ClaimCheckDataConverter converter =
+        new ClaimCheckDataConverter(new JacksonDataConverter(), store, THRESHOLD);
+
+    @Test
+    public void smallPayloadsStayInline() {
+        Order order = new Order("order-1", Collections.singletonList("sandwich"));
+
+        byte[] data = converter.toData(order);
+
+        assertNotEquals(ClaimCheckDataConverter.MAGIC, data[0]);
+        assertEquals(0, store.blobs.size());
+        assertEquals(order, converter.fromData(data, Order.class, Order.class));
+    }
+
+    @Test
+    public void largePayloadsRoundTripThroughTheStore() {
+        Order order = cateringOrder();
+
+        byte[] data = converter.toData("restaurant-1", order);
+
+        assertEquals(38, data.length);
+        assertEquals(ClaimCheckDataConverter.MAGIC, data[0]);
+        assertEquals(1, store.blobs.size());
+        Object[] values = converter.fromDataArray(data, String.class, Order.class);
+        assertEquals("restaurant-1", values[0]);
+        assertEquals(order, values[1]);
+    }
+
+    @Test
+    public void plainPayloadsAreDecodedWithoutTheStore() {
+        byte[] json = new JacksonDataConverter().toData(cateringOrder());
+
+        assertEquals(cateringOrder(), converter.fromData(json, Order.class, Order.class));
+    }
+
+    @Test(expected = DataConverterException.class)
+    public void rejectsBlobsThatDoNotMatchTheDigest() {
+        byte[] data = converter.toData(cateringOrder());
+        String key = store.blobs.keySet().iterator().next();
+        store.blobs.put(key, new JacksonDataConverter().toData(new Order("other", cateringOrder().getContent())));
+
+        converter.fromData(data, Order.class, Order.class);
+    }
+
+    private static Order cateringOrder() {
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add("platter-" + i);
+        }
+        return new Order("catering-1", items);
+    }
+
+    private static final class InMemoryStore implements PayloadStore {
+        final Map<String, byte[]> blobs = new HashMap<>();
+
+        @Override
+        public void put(String key, byte[] payload) {
+            blobs.put(key, payload);
+        }
+
+        @Override
+        public byte[] get(String key) throws IOException {
+            byte[] payload = blobs.get(key);
+            if (payload == null) {
+                throw new IOException("Missing payload " + key);
+            }
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package eatsworkflow;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.uber.cadence.converter.DataConverterException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class CompactDataConverterTest {
+    private static final int THRESHOLD = 1024;
+
+    private final CompactDataConverter compact = new CompactDataConverter(true, THRESHOLD);
+    private final JacksonDataConverter json = new JacksonDataConverter();
+
+    @Test
+    public void smallPayloadsAreSmileWithoutCompression() {
+        Order order = new Order("order-1", Arrays.asList("sandwich", "grapes", "house special"));
+
+        byte[] data = compact.toData("restaurant-1", order);
+
+        assertEquals(CompactDataConverter.MAGIC, data[0]);
+        assertEquals(CompactDataConverter.FLAG_SMILE, data[1]);
+        Object[] args = compact.fromDataArray(data, String.class, Order.class);
+        assertEquals("restaurant-1", args[0]);
+        assertEquals(order, args[1]);
+    }
+
+    @Test
+    public void largePayloadsAreDeflated() {
+        Order order = cateringOrder();
+
+        byte[] data = compact.toData(order);
+
+        assertEquals(CompactDataConverter.FLAG_SMILE | CompactDataConverter.FLAG_DEFLATE, data[1]);
+        assertTrue(data.length < json.toData(order).length);
+        assertEquals(order, compact.fromData(data, Order.class, Order.class));
+    }
+
+    @Test
+    public void negativeThresholdDisablesCompression() {
+        byte[] data = new CompactDataConverter(true, -1).toData(cateringOrder());
+
+        assertEquals(CompactDataConverter.FLAG_SMILE, data[1]);
+        assertEquals(cateringOrder(), compact.fromData(data, Order.class, Order.class));
+    }
+
+    @Test
+    public void readsJsonPayloadsWithoutHeader() {
+        Order order = new Order("order-1", Arrays.asList("sandwich", "3"));
+        byte[] data = json.toData("restaurant-1", order);
+
+        assertFalse(CompactDataConverter.isCompact(data));
+        Object[] args = compact.fromDataArray(data, String.class, Order.class);
+        assertEquals("restaurant-1", args[0]);
+        assertEquals(order, args[1]);
+    }
+
+    @Test
+    public void readOnlyModeStillWritesJson() {
+        CompactDataConverter readOnly = new CompactDataConverter(false, THRESHOLD);
+        Order order = new Order("order-1", Arrays.asList("sandwich", "grapes"));
+
+        byte[] data = readOnly.toData(order);
+
+        assertArrayEquals(json.toData(order), data);
+        assertEquals(order, readOnly.fromData(compact.toData(order), Order.class, Order.class));
+    }
+
+    @Test
+    public void seededItemsTravelAsCodesOnlyInCompactPayloads() {
+        Order order = new Order("order-1", Arrays.asList("sandwich", "grapes"));
+
+        String plain = new String(json.toData(order), StandardCharsets.UTF_8);
+
+        assertTrue(plain.contains("\"sandwich\""));
+        assertEquals(Arrays.asList("0", "1"),
+            json.fromData("{\"id\":\"order-1\",\"content\":[0,1]}".getBytes(StandardCharsets.UTF_8),
+                Order.class, Order.class).getContent());
+        assertEquals(order, compact.fromData(compact.toData(order), Order.class, Order.class));
+    }
+
+    @Test
+    public void emptyArgumentsStayEmpty() {
+        assertEquals(0, compact.toData().length);
+        assertEquals(0, compact.fromDataArray(new byte[0]).length);
+    }
+
+    @Test(expected = DataConverterException.class)
+    public void rejectsUnknownFlags() {
+        compact.fromData(new byte[] {CompactDataConverter.MAGIC, 0x04, 0}, Order.class, Order.class);
+    }
+
+    @Test(expected = DataConverterException.class)
+    public void rejectsTruncatedCompressedPayloads() {
+        byte[] data = compact.toData(cateringOrder());
+
+        compact.fromData(Arrays.copyOf(data, data.length / 2), Order.class, Order.class);
+    }
+
+    private static Order cateringOrder() {
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            items.add(i % 2 == 0 ? "sandwich" : "platter-" + i);
+        }
+        return new Order("catering-1", items);
+    }
+}
@@ -0,0 +1,88 @@
+package eatsworkflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.uber.cadence.GetWorkflowExecutionHistoryRequest;
+import com.uber.cadence.GetWorkflowExecutionHistoryResponse;
+import com.uber.cadence.HistoryEvent;
+import com.uber.cadence.WorkflowExecution;
+import com.uber.cadence.client.WorkflowClientOptions;
+import com.uber.cadence.client.WorkflowOptions;
+import com.uber.cadence.client.WorkflowStub;
+import com.uber.cadence.common.WorkflowExecutionHistory;
+import com.uber.cadence.testing.TestEnvironmentOptions;
+import com.uber.cadence.testing.TestWorkflowEnvironment;
+import com.uber.cadence.worker.Worker;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Deliveries started before {@code deliverOrder} took a {@link DeliveryRequest} carry a single argument, which
+ * the data converter writes as a bare value. They have to keep running and replaying on the current code.
+ */
+public class DeliverOrderWorkflowReplayTest {
+    private static final String TASK_LIST = "DeliverOrderWorkflowReplayTest";
+
+    @Test
+    public void singleArgumentDecodesWithMissingArgumentsAsNull() {
+        JacksonDataConverter converter = new JacksonDataConverter();
+
+        Object[] args = converter.fromDataArray(converter.toData("order-1"), String.class, DeliveryRequest.class);
+
+        assertEquals(2, args.length);
+        assertEquals("order-1", args[0]);
+        assertNull(args[1]);
+    }
+
+    @Test
+    public void replaysDeliveryStartedWithOneArgument() throws Exception {
+        TestWorkflowEnvironment environment = TestWorkflowEnvironment.newInstance(
+            new TestEnvironmentOptions.Builder()
+                .setWorkflowClientOptions(WorkflowClientOptions.newBuilder()
+                    .setDomain(WorkerStarter.DOMAIN)
+                    .setDataConverter(new JacksonDataConverter())
+                    .build())
+                .build());
+        try {
+            Worker worker = environment.newWorker(TASK_LIST);
+            worker.addWorkflowImplementationFactory(
+                DeliverOrderWorkflow.class, () -> new DeliverOrderWorkflowImpl(WorkflowSettings.defaults()));
+            worker.registerActivitiesImplementations(new EatsActivityImpl(notification -> { }));
+            environment.start();
+
+            // Started the way the order workflow used to start its delivery child
+            WorkflowStub stub = environment.newWorkflowClient().newUntypedWorkflowStub(
+                "DeliverOrderWorkflow::deliverOrder",
+                new WorkflowOptions.Builder()
+                    .setTaskList(TASK_LIST)
+                    .setWorkflowId("deliver-order-replay-1")
+                    .setExecutionStartToCloseTimeout(Duration.ofMinutes(1))
+                    .build());
+            WorkflowExecution execution = stub.start("replay-1");
+            assertEquals("Order replay-1 delivered!", stub.getResult(String.class));
+
+            worker.replayWorkflowExecution(history(environment, execution));
+        } finally {
+            environment.close();
+        }
+    }
+
+    private static WorkflowExecutionHistory history(TestWorkflowEnvironment environment, WorkflowExecution execution)
+            throws Exception {
+        List<HistoryEvent> events = new ArrayList<>();
+        byte[] pageToken = null;
+        do {
+            GetWorkflowExecutionHistoryResponse response = environment.getWorkflowService().GetWorkflowExecutionHistory(
+                new GetWorkflowExecutionHistoryRequest()
+                    .setDomain(WorkerStarter.DOMAIN)
+                    .setExecution(execution)
+                    .setNextPageToken(pageToken));
+            events.addAll(response.getHistory().getEvents());
+            pageToken = response.getNextPageToken();
+        } while (pageToken != null && pageToken.length > 0);
+        return new WorkflowExecutionHistory(events);
+    }
+}
@@ -0,0 +1,95 @@
+package eatsworkflow;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileSystemPayloadStoreTest {
+    private static final String KEY = "ab12cd";
+    private static final byte[] PAYLOAD = "large catering order".getBytes(StandardCharsets.UTF_8);
+
+    private Path root;
+
+    @Before
+    public void createRoot() throws IOException {
+        root = Files.createTempDirectory("payload-store");
+    }
+
+    @After
+    public void deleteRoot() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void getReturnsPayloadWrittenByAnotherStore() throws IOException {
+        new FileSystemPayloadStore(root, 0).put(KEY, PAYLOAD);
+
+        assertArrayEquals(PAYLOAD, new FileSystemPayloadStore(root, 0).get(KEY));
+        assertTrue(Files.exists(root.resolve("ab").resolve(KEY)));
+    }
+
+    @Test(expected = NoSuchFileException.class)
+    public void getFailsForMissingBlob() throws IOException {
+        new FileSystemPayloadStore(root, 1024).get(KEY);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsKeysThatAreNotHex() throws IOException {
+        new FileSystemPayloadStore(root, 0).put("../etc", PAYLOAD);
+    }
+
+    @Test
+    public void deleteOlderThanKeepsRecentBlobs() throws IOException {
+        FileSystemPayloadStore store = new FileSystemPayloadStore(root, 1024);
+        store.put(KEY, PAYLOAD);
+        store.put("ef34", PAYLOAD);
+        age(root.resolve("ab").resolve(KEY), Duration.ofDays(2));
+
+        assertEquals(1, store.deleteOlderThan(Duration.ofDays(1)));
+
+        assertFalse(Files.exists(root.resolve("ab").resolve(KEY)));
+        assertTrue(Files.exists(root.resolve("ef").resolve("ef34")));
+    }
+
+    @Test
+    public void writingAgainRefreshesTheAge() throws IOException {
+        FileSystemPayloadStore store = new FileSystemPayloadStore(root, 0);
+        store.put(KEY, PAYLOAD);
+        age(root.resolve("ab").resolve(KEY), Duration.ofDays(2));
+
+        store.put(KEY, PAYLOAD);
+
+        assertEquals(0, store.deleteOlderThan(Duration.ofDays(1)));
+        assertArrayEquals(PAYLOAD, store.get(KEY));
+    }
+
+    @Test(expected = NoSuchFileException.class)
+    public void deletedBlobsAreNotServedFromCache() throws IOException {
+        FileSystemPayloadStore store = new FileSystemPayloadStore(root, 1024);
+        store.put(KEY, PAYLOAD);
+        age(root.resolve("ab").resolve(KEY), Duration.ofDays(2));
+        store.deleteOlderThan(Duration.ofDays(1));
+
+        store.get(KEY);
+    }
+
+    private static void age(Path file, Duration age) throws IOException {
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - age.toMillis()));
+    }
+}
@@ -0,0 +1,94 @@
+package eatsworkflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.uber.cadence.converter.DataConverterException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class JacksonDataConverterTest {
+    private static final Type ITEMS = new TypeReference<List<String>>() { }.getType();
+
+    private final JacksonDataConverter converter = new JacksonDataConverter();
+
+    @Test
+    public void decodesEachArgumentIntoItsType() {
+        Order order = new Order("order-1", Arrays.asList("sandwich", "grapes"));
+        OrderTimingPolicy timing = OrderTimingPolicy.defaults();
+
+        Object[] args = converter.fromDataArray(converter.toData("restaurant-1", order, "shard-0", timing),
+            String.class, Order.class, String.class, OrderTimingPolicy.class);
+
+        assertEquals(4, args.length);
+        assertEquals("restaurant-1", args[0]);
+        assertEquals(order, args[1]);
+        assertEquals("shard-0", args[2]);
+        assertEquals(timing.getDecisionTimeoutMillis(), ((OrderTimingPolicy) args[3]).getDecisionTimeoutMillis());
+    }
+
+    @Test
+    public void decodesGenericArgumentTypes() {
+        Object[] args = converter.fromDataArray(json("[[\"sandwich\",\"grapes\"],7]"), ITEMS, Integer.class);
+
+        assertEquals(Arrays.asList("sandwich", "grapes"), args[0]);
+        assertEquals(7, args[1]);
+    }
+
+    @Test
+    public void missingTrailingArgumentsAreNull() {
+        Object[] args = converter.fromDataArray(json("[\"order-1\"]"), String.class, Order.class, String.class);
+
+        assertEquals(3, args.length);
+        assertEquals("order-1", args[0]);
+        assertNull(args[1]);
+        assertNull(args[2]);
+    }
+
+    @Test
+    public void nullAndExtraArgumentsAreSkipped() {
+        Object[] args = converter.fromDataArray(json("[null,{\"id\":\"order-1\",\"content\":[]},\"extra\",[1,2]]"),
+            Order.class, Order.class);
+
+        assertEquals(2, args.length);
+        assertNull(args[0]);
+        assertEquals("order-1", ((Order) args[1]).getId());
+    }
+
+    @Test
+    public void bareValueIsTheFirstArgument() {
+        Object[] args = converter.fromDataArray(converter.toData("order-1"), String.class, DeliveryRequest.class);
+
+        assertEquals(2, args.length);
+        assertEquals("order-1", args[0]);
+        assertNull(args[1]);
+    }
+
+    @Test
+    public void untypedArraysDecodeAsPlainValues() {
+        Object[] args = converter.fromDataArray(json("[\"order-1\",3]"));
+
+        assertEquals(2, args.length);
+        assertEquals("order-1", args[0]);
+        assertEquals(3, args[1]);
+    }
+
+    @Test
+    public void emptyContentHasNoArguments() {
+        assertEquals(0, converter.fromDataArray(new byte[0], String.class).length);
+        assertEquals(0, converter.fromDataArray(converter.toData()).length);
+    }
+
+    @Test(expected = DataConverterException.class)
+    public void malformedContentFails() {
+        converter.fromDataArray(json("[\"order-1\","), String.class, String.class);
+    }
+
+    private static byte[] json(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
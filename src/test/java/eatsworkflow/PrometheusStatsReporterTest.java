@@ -0,0 +1,92 @@
+package eatsworkflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.uber.m3.util.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class PrometheusStatsReporterTest {
+    private final PrometheusStatsReporter reporter = new PrometheusStatsReporter();
+
+    @Test
+    public void everyFamilyHasOneTypeLineBeforeItsSeries() {
+        reporter.reportCounter("orders", tags("tasklist", "b"), 1);
+        reporter.reportCounter("orders_x", null, 1);
+        reporter.reportCounter("orders", tags("tasklist", "a"), 2);
+        reporter.reportGauge("limit", tags("tasklist", "a"), 8);
+        reporter.reportTimer("latency", null, Duration.ofMillis(20));
+        reporter.reportTimer("latency", tags("tasklist", "a"), Duration.ofMillis(20));
+
+        List<String> lines = lines(reporter.render());
+
+        assertEquals(Arrays.asList(
+            "# TYPE orders_total counter",
+            "orders_total{tasklist=\"a\"} 2",
+            "orders_total{tasklist=\"b\"} 1",
+            "# TYPE orders_x_total counter",
+            "orders_x_total 1",
+            "# TYPE limit gauge",
+            "limit{tasklist=\"a\"} 8.0"), lines.subList(0, 7));
+        assertEquals(1, count(lines, "# TYPE latency_seconds histogram"));
+        assertEquals(4, count(lines, "# TYPE "));
+    }
+
+    @Test
+    public void countersAccumulateAndGaugesKeepTheLastValue() {
+        reporter.reportCounter("orders", null, 2);
+        reporter.reportCounter("orders", null, 3);
+        reporter.reportGauge("limit", null, 4);
+        reporter.reportGauge("limit", null, 6);
+
+        List<String> lines = lines(reporter.render());
+
+        assertTrue(lines.contains("orders_total 5"));
+        assertTrue(lines.contains("limit 6.0"));
+    }
+
+    @Test
+    public void timersRenderCumulativeBucketsInSeconds() {
+        reporter.reportTimer("latency", tags("tasklist", "a"), Duration.ofMillis(20));
+        reporter.reportTimer("latency", tags("tasklist", "a"), Duration.ofSeconds(2000));
+
+        List<String> lines = lines(reporter.render());
+
+        assertTrue(lines.contains("latency_seconds_bucket{tasklist=\"a\",le=\"0.01\"} 0"));
+        assertTrue(lines.contains("latency_seconds_bucket{tasklist=\"a\",le=\"0.025\"} 1"));
+        assertTrue(lines.contains("latency_seconds_bucket{tasklist=\"a\",le=\"600.0\"} 1"));
+        assertTrue(lines.contains("latency_seconds_bucket{tasklist=\"a\",le=\"+Inf\"} 2"));
+        assertTrue(lines.contains("latency_seconds_count{tasklist=\"a\"} 2"));
+        assertEquals(1, count(lines, "latency_seconds_bucket{tasklist=\"a\",le=\"+Inf\"}"));
+    }
+
+    @Test
+    public void namesAndLabelValuesAreEscaped() {
+        reporter.reportCounter("cadence-worker.polls", tags("task.list", "say \"hi\"\\"), 1);
+
+        assertTrue(lines(reporter.render()).contains("cadence_worker_polls_total{task_list=\"say \\\"hi\\\"\\\\\"} 1"));
+    }
+
+    private static Map<String, String> tags(String key, String value) {
+        return Collections.singletonMap(key, value);
+    }
+
+    private static List<String> lines(String rendered) {
+        return new ArrayList<>(Arrays.asList(rendered.split("\n")));
+    }
+
+    private static int count(List<String> lines, String prefix) {
+        int count = 0;
+        for (String line : lines) {
+            if (line.startsWith(prefix)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}